@@ -0,0 +1,463 @@
+package org.megargayu.argextension.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates an {@code ArgumentBinder} for every {@code ArgumentCommand} with an {@code @Execute} method. The
+ * binder creates the {@code Argument}s from the {@code @Arg} parameters and calls the method directly, so nothing
+ * is looked up with reflection at runtime. Mistakes in the arguments (duplicate names, optional arguments before
+ * required ones, parameters without a converter...) are compile errors.
+ * <p>
+ * The annotations are read by name, so the processor doesn't depend on the library.
+ */
+@SupportedAnnotationTypes({ArgumentBinderProcessor.EXECUTE, ArgumentBinderProcessor.ARG})
+public class ArgumentBinderProcessor extends AbstractProcessor {
+    private static final String PACKAGE = "org.megargayu.argextension";
+    static final String EXECUTE = PACKAGE + ".Execute";
+    static final String ARG = PACKAGE + ".Arg";
+    private static final String COMMAND = PACKAGE + ".ArgumentCommand";
+    private static final String VALUES = PACKAGE + ".ArgumentValues";
+    private static final String VALIDATOR = PACKAGE + ".Validator";
+    private static final String CONVERTER = PACKAGE + ".Converter";
+    private static final String EVENT = "com.jagrosh.jdautilities.command.CommandEvent";
+    private static final String MEMBER = "net.dv8tion.jda.api.entities.Member";
+
+    /**
+     * An {@code @Arg} parameter, ready to be written out
+     */
+    private static final class Parameter {
+        private final String name;
+        private final String description;
+        private final String type;
+        private final String validator;
+        private final String read;
+
+        private Parameter(String name, String description, String type, String validator, String read) {
+            this.name = name;
+            this.description = description;
+            this.type = type;
+            this.validator = validator;
+            this.read = read;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement execute = processingEnv.getElementUtils().getTypeElement(EXECUTE);
+        if (execute == null)
+            return false;
+
+        Map<TypeElement, ExecutableElement> methods = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(execute)) {
+            TypeElement command = (TypeElement) element.getEnclosingElement();
+            if (methods.putIfAbsent(command, (ExecutableElement) element) != null)
+                error(element, "A command can only have one @Execute method!");
+        }
+
+        for (Map.Entry<TypeElement, ExecutableElement> entry : methods.entrySet()) {
+            List<Parameter> required = new ArrayList<>();
+            List<Parameter> optional = new ArrayList<>();
+            if (checkCommand(entry.getKey(), entry.getValue(), required, optional))
+                write(entry.getKey(), entry.getValue(), required, optional);
+        }
+        return true;
+    }
+
+    /**
+     * Check a command and its {@code @Execute} method, reporting every mistake as a compile error
+     *
+     * @param command  The command
+     * @param method   The {@code @Execute} method
+     * @param required The list to add the required parameters to
+     * @param optional The list to add the optional parameters to
+     * @return Whether there were no errors
+     */
+    private boolean checkCommand(TypeElement command, ExecutableElement method, List<Parameter> required,
+                                 List<Parameter> optional) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        boolean valid = true;
+
+        TypeElement argumentCommand = elements.getTypeElement(COMMAND);
+        if (command.getKind() != ElementKind.CLASS || argumentCommand == null ||
+                !types.isSubtype(types.erasure(command.asType()), argumentCommand.asType())) {
+            error(method, "@Execute methods must be in a class which extends ArgumentCommand!");
+            return false;
+        }
+        if (command.getModifiers().contains(Modifier.PRIVATE) || command.getNestingKind() == NestingKind.LOCAL ||
+                command.getNestingKind() == NestingKind.ANONYMOUS ||
+                command.getNestingKind() == NestingKind.MEMBER && !command.getModifiers().contains(Modifier.STATIC)) {
+            error(command, "Commands with an @Execute method must be top level or static nested classes, and " +
+                    "can't be private!");
+            valid = false;
+        }
+        if (!command.getTypeParameters().isEmpty()) {
+            error(command, "Commands with an @Execute method can't be generic!");
+            valid = false;
+        }
+        ExecutableElement override = findExecuteOverride(command);
+        if (override != null) {
+            // The binder only runs if execute(CommandEvent, ArgumentValues) isn't overridden
+            error(override, "Commands with an @Execute method can't also override execute(CommandEvent, " +
+                    "ArgumentValues) or execute(CommandEvent, List<String>)!");
+            valid = false;
+        }
+
+        if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+            error(method, "@Execute methods can't be private or static!");
+            valid = false;
+        }
+        if (method.getReturnType().getKind() != TypeKind.VOID) {
+            error(method, "@Execute methods must return void!");
+            valid = false;
+        }
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (parameters.isEmpty() || !parameters.get(0).asType().toString().equals(EVENT)) {
+            error(method, "The first parameter of an @Execute method must be the CommandEvent!");
+            return false;
+        }
+
+        Set<String> names = new HashSet<>();
+        boolean seenOptional = false;
+        for (int i = 1; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            AnnotationMirror arg = findAnnotation(parameter, ARG);
+            if (arg == null) {
+                error(parameter, "Every parameter of an @Execute method after the CommandEvent needs @Arg!");
+                valid = false;
+                continue;
+            }
+
+            Map<String, Object> values = annotationValues(arg);
+            String name = (String) values.get("value");
+            boolean isOptional = (Boolean) values.get("optional");
+            if (name.isEmpty()) {
+                error(parameter, "Argument names cannot be empty!");
+                valid = false;
+            } else if (!names.add(name)) {
+                error(parameter, "Duplicate argument name `" + name + "`!");
+                valid = false;
+            }
+            if (!isOptional && seenOptional) {
+                error(parameter, "Required arguments must come before optional arguments!");
+                valid = false;
+            }
+            seenOptional |= isOptional;
+            if (isOptional && parameter.asType().getKind().isPrimitive()) {
+                error(parameter, "Optional arguments can't be primitives (use " +
+                        types.boxedClass(types.getPrimitiveType(parameter.asType().getKind())).getSimpleName() +
+                        " instead)!");
+                valid = false;
+            }
+
+            Parameter bound = bind(parameter, i - 1, name, (String) values.get("description"),
+                    (String) values.get("type"), (TypeMirror) values.get("validator"), isOptional);
+            if (bound == null)
+                valid = false;
+            else
+                (isOptional ? optional : required).add(bound);
+        }
+
+        return valid;
+    }
+
+    /**
+     * Work out the validator of a parameter and how to read it from the {@code ArgumentValues}
+     *
+     * @param parameter   The parameter
+     * @param index       The position of the argument
+     * @param name        The name of the argument
+     * @param description The description of the argument
+     * @param type        The type of the argument (empty for the default)
+     * @param validator   The validator class ({@code Validator} itself for the built-in converter)
+     * @param optional    Whether the argument is optional
+     * @return The parameter, or null if it has no usable validator
+     */
+    private Parameter bind(VariableElement parameter, int index, String name, String description, String type,
+                           TypeMirror validator, boolean optional) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror parameterType = parameter.asType();
+        TypeMirror boxed = parameterType.getKind().isPrimitive() ?
+                types.boxedClass((PrimitiveType) parameterType).asType() : parameterType;
+        boolean isString = parameterType.toString().equals("java.lang.String");
+
+        String read;
+        switch (parameterType.getKind()) {
+            case INT:
+                read = "args.getInt(" + index + ")";
+                break;
+            case LONG:
+                read = "args.getLong(" + index + ")";
+                break;
+            case DOUBLE:
+                read = "args.getDouble(" + index + ")";
+                break;
+            case BOOLEAN:
+                read = "args.getBoolean(" + index + ")";
+                break;
+            case DECLARED:
+            case ARRAY:
+                read = "args.<" + boxed + ">get(" + index + ")";
+                if (optional)
+                    read = "args.isPresent(" + index + ") ? " + read + " : null";
+                break;
+            default:
+                error(parameter, "Arguments of type " + parameterType + " aren't supported!");
+                return null;
+        }
+
+        // A custom validator, which has to convert to the parameter's type (unless it is a string)
+        if (!validator.toString().equals(VALIDATOR)) {
+            TypeElement validatorElement = (TypeElement) types.asElement(validator);
+            boolean constructible = validatorElement.getKind() == ElementKind.CLASS &&
+                    !validatorElement.getModifiers().contains(Modifier.ABSTRACT) &&
+                    !validatorElement.getModifiers().contains(Modifier.PRIVATE) &&
+                    ElementFilter.constructorsIn(validatorElement.getEnclosedElements()).stream().anyMatch(
+                            constructor -> constructor.getParameters().isEmpty() &&
+                                    !constructor.getModifiers().contains(Modifier.PRIVATE));
+            if (!constructible) {
+                error(parameter, "Validator " + validator + " needs a public no-argument constructor!");
+                return null;
+            }
+
+            TypeElement converter = elements.getTypeElement(CONVERTER);
+            DeclaredType converterOfType = types.getDeclaredType(converter, types.getWildcardType(boxed, null));
+            if (!isString && !types.isAssignable(validator, converterOfType)) {
+                error(parameter, "Validator " + validator + " must be a Converter<" + boxed + "> to be used for an " +
+                        "argument of type " + parameterType + "!");
+                return null;
+            }
+            return new Parameter(name, description, type.isEmpty() ? null : type, "new " + validator + "()", read);
+        }
+
+        // A built-in converter
+        String builtIn, builtInType;
+        switch (boxed.toString()) {
+            case "java.lang.Integer":
+                builtIn = PACKAGE + ".Converters.integer()";
+                builtInType = "number";
+                break;
+            case "java.lang.Long":
+                builtIn = PACKAGE + ".Converters.longInteger()";
+                builtInType = "number";
+                break;
+            case "java.lang.Double":
+                builtIn = PACKAGE + ".Converters.decimal()";
+                builtInType = "number";
+                break;
+            case "java.lang.Boolean":
+                builtIn = PACKAGE + ".Validators.bool()";
+                builtInType = "boolean";
+                break;
+            case "java.lang.String":
+                builtIn = null;
+                builtInType = null;
+                break;
+            case MEMBER:
+                builtIn = PACKAGE + ".Converters.member()";
+                builtInType = "member";
+                break;
+            default:
+                Element element = types.asElement(boxed);
+                if (element == null || element.getKind() != ElementKind.ENUM) {
+                    error(parameter, "Arguments of type " + parameterType + " need a validator (@Arg(validator = " +
+                            "...)) which converts to " + boxed + "!");
+                    return null;
+                }
+                builtIn = PACKAGE + ".Converters.enumeration(" + types.erasure(boxed) + ".class)";
+                builtInType = element.getSimpleName().toString().toLowerCase();
+        }
+        return new Parameter(name, description, type.isEmpty() ? builtInType : type, builtIn, read);
+    }
+
+    /**
+     * Write the binder of a command
+     *
+     * @param command  The command
+     * @param method   The {@code @Execute} method
+     * @param required The required parameters
+     * @param optional The optional parameters
+     */
+    private void write(TypeElement command, ExecutableElement method, List<Parameter> required,
+                       List<Parameter> optional) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(command);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binderName = binderName(command);
+        String commandName = command.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+        source.append("/**\n")
+                .append(" * The generated {@link ").append(PACKAGE).append(".ArgumentBinder} of {@link ")
+                .append(commandName).append("#").append(method.getSimpleName()).append("}\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(binderName).append(" implements ").append(PACKAGE)
+                .append(".ArgumentBinder<").append(commandName).append("> {\n");
+        writeArguments(source, "requiredArguments", required);
+        writeArguments(source, "optionalArguments", optional);
+
+        source.append("    @Override\n")
+                .append("    public void execute(").append(commandName).append(" command, ").append(EVENT)
+                .append(" event, ").append(PACKAGE).append(".ArgumentValues args) {\n")
+                .append("        command.").append(method.getSimpleName()).append("(event");
+        for (Parameter parameter : required)
+            source.append(",\n                ").append(parameter.read);
+        for (Parameter parameter : optional)
+            source.append(",\n                ").append(parameter.read);
+        source.append(");\n    }\n}\n");
+
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, command).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(command, "Couldn't write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeArguments(StringBuilder source, String methodName, List<Parameter> parameters) {
+        source.append("    @Override\n")
+                .append("    public ").append(PACKAGE).append(".Argument[] ").append(methodName).append("() {\n")
+                .append("        return new ").append(PACKAGE).append(".Argument[]{");
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            source.append("\n                new ").append(PACKAGE).append(".Argument(")
+                    .append(literal(parameter.name)).append(", ")
+                    .append(literal(parameter.description)).append(", ")
+                    .append(literal(parameter.type)).append(", ")
+                    .append(parameter.validator)
+                    .append(i < parameters.size() - 1 ? ")," : ")\n        ");
+        }
+        source.append("};\n    }\n\n");
+    }
+
+    /**
+     * Find an override of one of the {@code execute} methods of {@code ArgumentCommand} in a command or its
+     * superclasses
+     *
+     * @param command The command
+     * @return The override, or null if there is none
+     */
+    private ExecutableElement findExecuteOverride(TypeElement command) {
+        Types types = processingEnv.getTypeUtils();
+        for (TypeElement type = command; type != null && !type.getQualifiedName().contentEquals(COMMAND);
+             type = (TypeElement) types.asElement(type.getSuperclass())) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                List<? extends VariableElement> parameters = method.getParameters();
+                if (!method.getSimpleName().contentEquals("execute") || parameters.size() != 2 ||
+                        !types.erasure(parameters.get(0).asType()).toString().equals(EVENT))
+                    continue;
+                String second = types.erasure(parameters.get(1).asType()).toString();
+                if (second.equals(VALUES) || second.equals("java.util.List"))
+                    return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the name of the binder of a command - the names of the command and the classes it is nested in, joined
+     * with underscores, and {@code _Binder}
+     *
+     * @param command The command
+     * @return The simple name of the binder
+     */
+    private static String binderName(TypeElement command) {
+        StringBuilder name = new StringBuilder(command.getSimpleName());
+        for (Element enclosing = command.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement())
+            name.insert(0, enclosing.getSimpleName() + "_");
+        return name.append("_Binder").toString();
+    }
+
+    private static String literal(String value) {
+        if (value == null)
+            return "null";
+
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                        literal.append(String.format("\\u%04x", (int) c));
+                    else
+                        literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+                return mirror;
+        return null;
+    }
+
+    private Map<String, Object> annotationValues(AnnotationMirror mirror) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet())
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        return values;
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,83 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandClient;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the full {@link ArgumentCommand#execute(CommandEvent)} pipeline (splitting, arity checks, validation
+ * and conversion) for valid and rejected input, and the usage string
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecuteBenchmark {
+    @Param({"valid", "invalid", "missing", "tooMany"})
+    public String input;
+
+    private ArgumentCommand command;
+    private CommandClient client;
+    private String arguments;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        command = new ArgumentCommand() {
+            {
+                this.name = "give";
+                this.requiredArguments = new Argument[]{
+                        new Argument("user", "the user", "user", Validators.userMention()),
+                        new Argument("amount", "how many", "number", Validators.intRange(1, 1000))
+                };
+                this.optionalArguments = new Argument[]{
+                        new Argument("reason", "why", "text", Validators.length(1, 100))
+                };
+            }
+
+            @Override
+            protected void execute(CommandEvent event, ArgumentValues args) {
+                ExecuteBenchmark.this.blackhole.consume(args.getLong("user") + args.getInt("amount"));
+            }
+        };
+
+        switch (input) {
+            case "valid":
+                arguments = "<@!123456789012345678> 250 \"for being helpful\"";
+                break;
+            case "invalid":
+                arguments = "<@!123456789012345678> lots";
+                break;
+            case "missing":
+                arguments = "<@!123456789012345678>";
+                break;
+            default:
+                arguments = "<@!123456789012345678> 250 reason extra";
+                break;
+        }
+
+        client = StubCommandClient.create("!", command);
+    }
+
+    @Benchmark
+    public int execute() {
+        StubCommandEvent event = new StubCommandEvent(client, arguments);
+        command.execute(event);
+        return event.getReplyCount();
+    }
+
+    @Benchmark
+    public String getArguments() {
+        return command.getArguments();
+    }
+}
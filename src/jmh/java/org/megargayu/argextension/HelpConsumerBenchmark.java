@@ -0,0 +1,74 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandClient;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks both paths of {@link HelpConsumer#accept(CommandEvent)} - the list of every command, and the help of
+ * a single command (by the alias of the last one registered) - with hundreds of registered commands
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HelpConsumerBenchmark {
+    @Param({"100", "500"})
+    public int commandCount;
+
+    private HelpConsumer helpConsumer;
+    private CommandClient client;
+
+    @Setup
+    public void setup() {
+        List<Command> commands = new ArrayList<>();
+        for (int i = 0; i < commandCount; i++) {
+            int number = i;
+            commands.add(new ArgumentCommand() {
+                {
+                    this.name = "command" + number;
+                    this.help = "does thing number " + number;
+                    this.aliases = new String[]{"c" + number, "cmd" + number};
+                    this.requiredArguments = new Argument[]{
+                            new Argument("target", "what to do it to", "user", Validators.userMention())
+                    };
+                    this.optionalArguments = new Argument[]{
+                            new Argument("times", "how many times", "number", Validators.intRange(1, 10))
+                    };
+                }
+
+                @Override
+                protected void execute(CommandEvent event, ArgumentValues args) {
+                }
+            });
+        }
+
+        client = StubCommandClient.create("!", "help", "1000", commands);
+        helpConsumer = new HelpConsumer();
+    }
+
+    @Benchmark
+    public int commandList() {
+        StubCommandEvent event = new StubCommandEvent(client, "");
+        helpConsumer.accept(event);
+        return event.getReplyCount();
+    }
+
+    @Benchmark
+    public int singleCommand() {
+        StubCommandEvent event = new StubCommandEvent(client, "cmd" + (commandCount - 1));
+        helpConsumer.accept(event);
+        return event.getReplyCount();
+    }
+}
@@ -0,0 +1,78 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ArgumentCommand#splitArguments(String)} across realistic and adversarial inputs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SplitArgumentsBenchmark {
+    @Param({"short", "quoted", "long", "addLast", "adversarial"})
+    public String input;
+
+    private ArgumentCommand command;
+    private String arguments;
+
+    @Setup
+    public void setup() {
+        boolean addLast = input.equals("addLast");
+        command = new ArgumentCommand() {
+            {
+                this.name = "bench";
+                this.requiredArguments = new Argument[]{new Argument("first", null), new Argument("second", null)};
+                this.optionalArguments = new Argument[]{new Argument("third", null)};
+                this.addLastArgument = addLast;
+            }
+
+            @Override
+            protected void execute(CommandEvent event, List<String> args) {
+            }
+        };
+
+        switch (input) {
+            case "short":
+                arguments = "12 abc";
+                break;
+            case "quoted":
+                arguments = "\"first argument\" 'second argument' third";
+                break;
+            case "long":
+            case "addLast":
+                arguments = "lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor " +
+                        "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud " +
+                        "exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+                break;
+            default:
+                // Long whitespace runs, an unclosed quote which has to be scanned to the end, and far more tokens
+                // than the command accepts
+                arguments = " ".repeat(500) + "\"" + "x ".repeat(700) + "'" + "\t".repeat(100);
+                break;
+        }
+    }
+
+    @Benchmark
+    public List<String> splitArguments() {
+        return command.splitArguments(arguments);
+    }
+
+    @Benchmark
+    public void splitAndRead(Blackhole blackhole) {
+        List<String> split = command.splitArguments(arguments);
+        for (int i = 0; i < split.size(); i++)
+            blackhole.consume(split.get(i));
+    }
+}
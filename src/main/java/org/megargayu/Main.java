@@ -1,15 +1,18 @@
 package org.megargayu;
 
+import org.megargayu.argextension.CommandRegistry;
 import org.megargayu.argextension.HelpConsumer;
 import com.jagrosh.jdautilities.command.CommandClientBuilder;
 import com.jagrosh.jdautilities.commons.waiter.EventWaiter;
 import com.jagrosh.jdautilities.examples.command.PingCommand;
 import com.jagrosh.jdautilities.examples.command.ShutdownCommand;
+import org.megargayu.commands.AddCommand;
 import org.megargayu.commands.TestCommand;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
 import javax.security.auth.login.LoginException;
+import java.awt.*;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
@@ -21,19 +24,25 @@ public class Main {
         InputStream propertyInputStream = Main.class.getClassLoader().getResourceAsStream("config.properties");
         properties.load(propertyInputStream);
 
+        // The commands are compiled once, and shared by every shard
+        CommandRegistry registry = new CommandRegistry(properties.getProperty("prefix"), "help",
+                Color.getColor("#00FF00"),
+                new TestCommand(),
+                new AddCommand(),
+                new PingCommand(),
+                new ShutdownCommand());
+
         EventWaiter waiter = new EventWaiter();
         CommandClientBuilder client = new CommandClientBuilder()
                 .useDefaultGame()
                 .setOwnerId(properties.getProperty("ownerID"))
                 .setEmojis("\u2714\uFE0F", "\u26A0\uFE0F", "\u274C\uFE0F")
-                .setPrefix(properties.getProperty("prefix"))
-                .setHelpConsumer(new HelpConsumer())
-                .addCommands(
-                        new TestCommand(),
-                        new PingCommand(),
-                        new ShutdownCommand());
+                .setPrefix(registry.getPrefix())
+                .setHelpWord(registry.getHelpWord())
+                .setHelpConsumer(new HelpConsumer(registry))
+                .addCommands(registry.getCommands());
 
-        JDA jda = JDABuilder.createDefault(properties.getProperty("token"))
+        ShardManager shardManager = DefaultShardManagerBuilder.createDefault(properties.getProperty("token"))
                 .addEventListeners(waiter, client.build())
                 .build();
     }
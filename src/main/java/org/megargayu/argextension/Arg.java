@@ -0,0 +1,52 @@
+package org.megargayu.argextension;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An argument of an {@link Execute} method. The {@link Argument} is generated at build time from the parameter
+ * (see {@link ArgumentBinder}) - ints, longs, doubles, booleans, enums and members get a built-in {@link Converter},
+ * strings aren't validated, and any other type needs a {@link #validator()}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface Arg {
+    /**
+     * The name of the argument - {@link Argument#getName()}
+     *
+     * @return The name
+     */
+    String value();
+
+    /**
+     * The description of the argument - {@link Argument#getDescription()}
+     *
+     * @return The description (empty for none)
+     */
+    String description() default "";
+
+    /**
+     * The type of the argument - {@link Argument#getType()}
+     *
+     * @return The type (empty to use the type of the built-in converter, if there is one)
+     */
+    String type() default "";
+
+    /**
+     * Whether the argument is optional. Optional arguments must come after all required arguments, and can't be
+     * primitives (they are null if they aren't provided)
+     *
+     * @return Whether the argument is optional
+     */
+    boolean optional() default false;
+
+    /**
+     * The validator of the argument, which is created with its public no-argument constructor. For parameters which
+     * aren't strings, it must be a {@link Converter} of the parameter's type
+     *
+     * @return The validator class ({@link Validator} itself to use the built-in converter)
+     */
+    Class<? extends Validator> validator() default Validator.class;
+}
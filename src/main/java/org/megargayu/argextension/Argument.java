@@ -1,6 +1,35 @@
 package org.megargayu.argextension;
 
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+import java.util.concurrent.CompletableFuture;
+
 public class Argument {
+    /**
+     * The kind of an argument
+     */
+    private enum Kind {
+        /**
+         * Passed by position (a required or optional argument)
+         */
+        POSITIONAL,
+
+        /**
+         * Passed by name with a value ({@code --name=value})
+         */
+        OPTION,
+
+        /**
+         * Passed by name without a value ({@code --name})
+         */
+        FLAG,
+
+        /**
+         * Passed as a file attached to the message
+         */
+        ATTACHMENT
+    }
+
     /**
      * The name of the argument
      */
@@ -18,9 +47,25 @@ public class Argument {
 
     /**
      * The validator of the argument - {@link Validator#isValid(String)} is run when arguments are passed
+     * (if it is a {@link Converter}, {@link Converter#convert(CommandEvent, String)} is run instead)
      */
     private final Validator validator;
 
+    /**
+     * The kind of the argument
+     */
+    private final Kind kind;
+
+    /**
+     * The value of the option when it isn't passed (only for options)
+     */
+    private final String defaultValue;
+
+    /**
+     * The maximum size of the file in bytes (only for attachments)
+     */
+    private final long maxSize;
+
     /**
      * Create an argument for an {@link ArgumentCommand} with the specified name and description
      *
@@ -37,17 +82,110 @@ public class Argument {
      * @param name        The name of the argument - {@link #getName()}
      * @param description The description of the argument (can be empty/null) - {@link #getDescription()}
      * @param type        The type of the argument - {@link #getType()}
-     * @param validator   The validator of the argument - {@link #isValid(String)}
+     * @param validator   The validator of the argument - {@link #isValid(String)} (can be a {@link Converter}
+     *                    to convert the value while validating it)
      */
     public Argument(String name, String description, String type, Validator validator) {
+        this(name, description, type, validator, Kind.POSITIONAL, null, 0);
+    }
+
+    private Argument(String name, String description, String type, Validator validator, Kind kind,
+                     String defaultValue, long maxSize) {
         if (name == null || name.length() == 0)
             throw new IllegalArgumentException("Argument name cannot be null or empty!");
         if (type != null && type.length() == 0)
             throw new IllegalArgumentException("Type cannot be empty!");
+        if (kind == Kind.OPTION || kind == Kind.FLAG) {
+            for (int i = 0; i < name.length(); i++)
+                if (name.charAt(i) == '=' || ArgumentTokenizer.isWhitespace(name.charAt(i)))
+                    throw new IllegalArgumentException("Option names cannot contain whitespace or `=`!");
+        }
         this.name = name;
         this.description = description;
         this.type = type;
         this.validator = validator;
+        this.kind = kind;
+        this.defaultValue = defaultValue;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create a named option for {@link ArgumentCommand#options}, which is passed as {@code --name=value} and isn't
+     * set if it isn't passed
+     *
+     * @param name        The name of the option (without the dashes)
+     * @param description The description of the option (can be empty/null)
+     * @param type        The type of the option's value (can be null)
+     * @param validator   The validator of the option's value (can be null)
+     * @return The option
+     */
+    public static Argument option(String name, String description, String type, Validator validator) {
+        return new Argument(name, description, type, validator, Kind.OPTION, null, 0);
+    }
+
+    /**
+     * Create a named option for {@link ArgumentCommand#options}, which is passed as {@code --name=value}
+     *
+     * @param name         The name of the option (without the dashes)
+     * @param description  The description of the option (can be empty/null)
+     * @param type         The type of the option's value (can be null)
+     * @param validator    The validator of the option's value (can be null)
+     * @param defaultValue The value of the option when it isn't passed (checked by the validator once, without an
+     *                     event, when the command's schema is compiled)
+     * @return The option
+     */
+    public static Argument option(String name, String description, String type, Validator validator,
+                                  String defaultValue) {
+        if (defaultValue == null)
+            throw new IllegalArgumentException("Default value cannot be null!");
+        return new Argument(name, description, type, validator, Kind.OPTION, defaultValue, 0);
+    }
+
+    /**
+     * Create a boolean flag for {@link ArgumentCommand#options}, which is true if {@code --name} is passed and
+     * false otherwise
+     *
+     * @param name        The name of the flag (without the dashes)
+     * @param description The description of the flag (can be empty/null)
+     * @return The flag
+     */
+    public static Argument flag(String name, String description) {
+        return new Argument(name, description, null, null, Kind.FLAG, null, 0);
+    }
+
+    /**
+     * Create an attachment argument for {@link ArgumentCommand#requiredArguments} or
+     * {@link ArgumentCommand#optionalArguments}, which is passed as a file attached to the message rather than in
+     * the text. Attachments are matched to attachment arguments in order, and the content is streamed to the
+     * command through {@link ArgumentValues#getAttachment(String)}
+     *
+     * @param name        The name of the argument
+     * @param description The description of the argument (can be empty/null)
+     * @param maxSize     The maximum size of the file in bytes (larger files are rejected before the command runs)
+     * @return The attachment argument
+     */
+    public static Argument attachment(String name, String description, long maxSize) {
+        return attachment(name, description, maxSize, null);
+    }
+
+    /**
+     * Create an attachment argument for {@link ArgumentCommand#requiredArguments} or
+     * {@link ArgumentCommand#optionalArguments}, whose lines are checked by a validator as the command reads them
+     * (see {@link AttachmentValue#lines()})
+     *
+     * @param name          The name of the argument
+     * @param description   The description of the argument (can be empty/null)
+     * @param maxSize       The maximum size of the file in bytes (larger files are rejected before the command runs)
+     * @param lineValidator The validator of every line of the file (can be null, and can't be an
+     *                      {@link AsyncValidator})
+     * @return The attachment argument
+     */
+    public static Argument attachment(String name, String description, long maxSize, Validator lineValidator) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive!");
+        if (lineValidator instanceof AsyncValidator)
+            throw new IllegalArgumentException("Line validator cannot be asynchronous!");
+        return new Argument(name, description, "attachment", lineValidator, Kind.ATTACHMENT, null, maxSize);
     }
 
     /**
@@ -77,6 +215,75 @@ public class Argument {
         return type;
     }
 
+    /**
+     * Get if this argument is passed by name (an {@link #option} or a {@link #flag}) rather than by position
+     *
+     * @return Whether this argument is named
+     */
+    public boolean isOption() {
+        return kind == Kind.OPTION || kind == Kind.FLAG;
+    }
+
+    /**
+     * Get if this argument is a {@link #flag}
+     *
+     * @return Whether this argument is a flag
+     */
+    public boolean isFlag() {
+        return kind == Kind.FLAG;
+    }
+
+    /**
+     * Get if this argument is an {@link #attachment}
+     *
+     * @return Whether this argument is an attachment
+     */
+    public boolean isAttachment() {
+        return kind == Kind.ATTACHMENT;
+    }
+
+    /**
+     * Get the maximum size of the file
+     *
+     * @return The maximum size in bytes, or 0 for arguments which aren't attachments
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the value of the option when it isn't passed
+     *
+     * @return The default value, or null if there is none (and for arguments which aren't options)
+     */
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Get the type of the argument as an option of a slash command (see {@link SlashCommandData})
+     *
+     * @return {@link SlashOptionType#BOOLEAN} for flags, {@link SlashOptionType#ATTACHMENT} for attachments, and the
+     * type of the validator otherwise
+     * ({@link SlashOptionType#STRING} if there is no validator)
+     */
+    public SlashOptionType getSlashOptionType() {
+        if (kind == Kind.FLAG)
+            return SlashOptionType.BOOLEAN;
+        if (kind == Kind.ATTACHMENT)
+            return SlashOptionType.ATTACHMENT;
+        return validator != null ? validator.getSlashOptionType() : SlashOptionType.STRING;
+    }
+
+    /**
+     * Get the only values of the argument as an option of a slash command (see {@link SlashCommandData})
+     *
+     * @return The choices, or null if any value can be chosen
+     */
+    public String[] getSlashChoices() {
+        return validator != null && kind != Kind.FLAG && kind != Kind.ATTACHMENT ? validator.getSlashChoices() : null;
+    }
+
     /**
      * Check if value is valid
      *
@@ -84,6 +291,49 @@ public class Argument {
      * @return If the output is valid and the error string (null if none provided)
      */
     public ValidatorOutput isValid(String value) {
-        return validator != null ? validator.isValid(value) : new ValidatorOutput(true);
+        return validator != null ? validator.isValid(value) : ValidatorOutput.VALID;
+    }
+
+    /**
+     * Check if value is valid, converting it if the validator is a {@link Converter} (or wraps one)
+     *
+     * @param event The {@link CommandEvent} that triggered the command
+     * @param value The value to check
+     * @return If the output is valid and the error string (null if none provided) - a {@link ConverterOutput}
+     * if the value was converted
+     */
+    public ValidatorOutput isValid(CommandEvent event, String value) {
+        return validator != null ? validator.isValid(event, value) : ValidatorOutput.VALID;
+    }
+
+    /**
+     * Get if the validator of this argument needs the event (see {@link Validator#isEventDependent()})
+     *
+     * @return Whether the argument can only be validated with an event
+     */
+    public boolean isEventDependent() {
+        return validator != null && validator.isEventDependent();
+    }
+
+    /**
+     * Get if the validator of this argument is an {@link AsyncValidator}
+     *
+     * @return Whether the argument is validated asynchronously
+     */
+    public boolean isAsync() {
+        return validator instanceof AsyncValidator;
+    }
+
+    /**
+     * Check if value is valid asynchronously (if the validator isn't an {@link AsyncValidator}, the value is
+     * checked immediately and the returned future is already completed)
+     *
+     * @param event The {@link CommandEvent} that triggered the command
+     * @param value The value to check
+     * @return A future which completes with if the output is valid and the error string (null if none provided)
+     */
+    public CompletableFuture<? extends ValidatorOutput> isValidAsync(CommandEvent event, String value) {
+        return validator instanceof AsyncValidator ? ((AsyncValidator) validator).isValidAsync(event, value) :
+                CompletableFuture.completedFuture(isValid(event, value));
     }
 }
@@ -0,0 +1,35 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+/**
+ * The arguments and body of an {@link ArgumentCommand} with an {@link Execute} method. Binders are generated at
+ * build time by the annotation processor (the {@code argextension-processor} artifact), so the arguments are
+ * declared and passed to the method without any reflection.
+ *
+ * @param <C> The type of the command
+ */
+public interface ArgumentBinder<C extends ArgumentCommand> {
+    /**
+     * Create the required arguments of the command
+     *
+     * @return The required arguments
+     */
+    Argument[] requiredArguments();
+
+    /**
+     * Create the optional arguments of the command
+     *
+     * @return The optional arguments
+     */
+    Argument[] optionalArguments();
+
+    /**
+     * Call the {@link Execute} method of the command with the validated arguments
+     *
+     * @param command The command
+     * @param event   The {@link CommandEvent} that triggered the command
+     * @param args    The validated arguments
+     */
+    void execute(C command, CommandEvent event, ArgumentValues args);
+}
@@ -2,11 +2,19 @@ package org.megargayu.argextension;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
+import net.dv8tion.jda.api.entities.Message;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * A {@link Command} with automatic argument parsing (see docs
@@ -24,6 +32,23 @@ public abstract class ArgumentCommand extends Command {
      */
     protected Argument[] optionalArguments;
 
+    /**
+     * The array of named options and flags (created with {@link Argument#option} and {@link Argument#flag}), which
+     * can be passed anywhere in the arguments as {@code --name=value} or {@code --name}. A {@code --} on its own ends
+     * the options, so later arguments can start with dashes. Options are read by name from
+     * {@link #execute(CommandEvent, ArgumentValues)}
+     */
+    protected Argument[] options;
+
+    /**
+     * The array of subcommands (for example {@code set} and {@code get} for a {@code config} command), which can
+     * have their own arguments and subcommands. The leading words of the arguments are matched against the names
+     * and aliases of the subcommands (ignoring case), and the rest of the arguments are only validated against the
+     * deepest subcommand that matched. If no subcommand matches, this command's own arguments are used (or the
+     * invocation is rejected if it has none). Only the cooldown and permissions of this command are checked
+     */
+    protected ArgumentCommand[] subcommands;
+
     /**
      * Add the last argument together? (For example, if you had an argument that could contain spaces
      * at the end of your arguments, you wouldn't need to add quotes around them). Default is false
@@ -39,30 +64,195 @@ public abstract class ArgumentCommand extends Command {
     protected boolean addLastArgument = false;
 
     /**
-     * Split a string into it's arguments - split on spaces and quotes
-     * <br>Thanks to <a href="https://stackoverflow.com/a/366532">this StackOverflow answer</a> and
-     * <a href="https://stackoverflow.com/posts/comments/40428033">this StackOverflow comment</a> for this code
-     * (which was cleaned up a bit)
+     * The maximum length of the arguments (the whole string after the command name). Longer input is rejected
+     * before anything else is done with it. Default is 0, which is no limit
+     */
+    protected int maxInputLength = 0;
+
+    /**
+     * The maximum number of tokens (words or quoted strings) in the arguments, including any that are added onto
+     * the last argument with {@link #addLastArgument}. Default is 0, which is no limit
+     */
+    protected int maxTokens = 0;
+
+    /**
+     * The maximum length of a single argument, checked before any validator runs. Default is 0, which is no limit
+     */
+    protected int maxArgumentLength = 0;
+
+    /**
+     * Run each line of the arguments as a separate row, for commands which are given many rows at once (like bulk
+     * imports). Every line is split and validated like the arguments of a single invocation, as it is read, and
+     * the valid rows are passed to {@link #executeBatch(CommandEvent, List)} in chunks of {@link #batchChunkSize}.
+     * Instead of a reply per row, there is one reply summarizing how many rows ran and why the others were
+     * rejected. The limits on the input apply to each line. If the command has {@link #subcommands}, they are only
+     * named once, at the start of the first line. With {@link AsyncValidator}s, up to {@link #batchChunkSize} rows
+     * are validated at the same time, without blocking a thread, and the chunks are still passed on in the order of
+     * the lines. Default is false
+     */
+    protected boolean batchMode = false;
+
+    /**
+     * The maximum number of valid rows passed to {@link #executeBatch(CommandEvent, List)} at once (see
+     * {@link #batchMode}). Default is 100
+     */
+    protected int batchChunkSize = 100;
+
+    /**
+     * The maximum number of lines in a batch (see {@link #batchMode}). Larger batches are rejected before any line
+     * is validated. Default is 1000
+     */
+    protected int maxBatchRows = 1000;
+
+    /**
+     * The maximum time to wait for all {@link AsyncValidator}s to complete before the invocation is rejected.
+     * Default is 10 seconds
+     */
+    protected Duration validationTimeout = Duration.ofSeconds(10);
+
+    /**
+     * The executor which runs the command body (and replies to rejected invocations) when the arguments are
+     * validated asynchronously (see {@link AsyncValidator}). Default is {@link ForkJoinPool#commonPool()}
+     */
+    protected Executor asyncExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * The executor which runs the command body once the arguments are validated - for example
+     * {@link CommandExecutors#virtualThreads()}, for commands which block. Wrap it in a {@link BoundedExecutor} to
+     * limit how many invocations run at once. Default is null, which runs the body on the thread which validated the
+     * arguments
+     */
+    protected Executor executor = null;
+
+    /**
+     * How to reply to rejected invocations - for example a {@link CoalescingErrorReplyStrategy}, which doesn't send
+     * the same error twice in a row. Default is {@link ErrorReplyStrategy#IMMEDIATE}
+     */
+    protected ErrorReplyStrategy errorReplyStrategy = ErrorReplyStrategy.IMMEDIATE;
+
+    /**
+     * The instrumentation of this command (for example a {@link CommandMetricsRecorder}). Default is
+     * {@link CommandMetrics#NONE}
+     */
+    protected CommandMetrics metrics = CommandMetrics.NONE;
+
+    /**
+     * The generated binder of this command's {@link Execute} method - {@link #bind(ArgumentBinder)}
+     */
+    private ArgumentBinder<ArgumentCommand> binder;
+
+    /**
+     * The compiled schema of this command - {@link #getSchema()}
+     */
+    private volatile ArgumentSchema schema;
+
+    /**
+     * The compiled subcommands of this command - {@link #getSubcommandNode()}
+     */
+    private volatile SubcommandNode subcommandNode;
+
+    /**
+     * The name of this command including the names of its parents (for example {@code config set}), or null if
+     * it isn't a subcommand
+     */
+    private volatile String qualifiedName;
+
+    /**
+     * Split a string into it's arguments - split on spaces and quotes (see {@link ArgumentTokenizer} for the
+     * exact rules). If {@link #addLastArgument} is true, everything after the last possible argument is added
+     * onto it.
      *
      * @param arguments The un-parsed argument string
      * @return The resulting list of arguments
      */
     public List<String> splitArguments(String arguments) {
-        List<String> split = new ArrayList<>();
-        Pattern regex = Pattern.compile("\"([^\"]*)\"|'([^']*)'|[^\\s]+");
-        Matcher regexMatcher = regex.matcher(arguments);
-        while (regexMatcher.find()) {
-            if (addLastArgument && split.size() >= getRequiredArguments().length + getOptionalArguments().length) {
-                split.set(split.size() - 1, split.get(split.size() - 1) + " " + regexMatcher.group());
-                continue;
-            }
+        ArgumentSchema schema = getSchema();
+        if (schema.getOptionCount() > 0)
+            return ArgumentList.split(arguments, schema.getArgumentCount(), schema.isAddLastArgument(), schema);
+        return schema.isAddLastArgument() && schema.getArgumentCount() > 0 ?
+                ArgumentList.split(arguments, schema.getArgumentCount(), true) :
+                ArgumentList.split(arguments, Integer.MAX_VALUE, false);
+    }
 
-            if (regexMatcher.group(1) != null) split.add(regexMatcher.group(1)); // Double quotes
-            else if (regexMatcher.group(2) != null) split.add(regexMatcher.group(2)); // Single quotes
-            else split.add(regexMatcher.group()); // No quotes
-        }
+    /**
+     * Get the compiled {@link ArgumentSchema} of this command. It is compiled the first time it is needed, and
+     * again only if {@link #name}, {@link #requiredArguments}, {@link #optionalArguments}, {@link #options} or
+     * {@link #addLastArgument} are reassigned.
+     *
+     * @return The compiled schema
+     */
+    public ArgumentSchema getSchema() {
+        String name = getQualifiedName();
+        ArgumentSchema schema = this.schema;
+        if (schema == null ||
+                !schema.isCompiledFrom(name, requiredArguments, optionalArguments, options, addLastArgument))
+            this.schema = schema = new ArgumentSchema(name, requiredArguments, optionalArguments, options,
+                    addLastArgument);
+        return schema;
+    }
 
-        return split;
+    /**
+     * Use the generated binder of this command's {@link Execute} method (call this in the constructor). This sets
+     * {@link #requiredArguments} and {@link #optionalArguments}, and the body of the command becomes the
+     * {@code Execute} method.
+     *
+     * @param binder The binder generated for this command, for example {@code new MyCommand_Binder()}
+     */
+    @SuppressWarnings("unchecked")
+    protected void bind(ArgumentBinder<? extends ArgumentCommand> binder) {
+        if (binder == null)
+            throw new IllegalArgumentException("Binder cannot be null!");
+        this.requiredArguments = binder.requiredArguments();
+        this.optionalArguments = binder.optionalArguments();
+        this.binder = (ArgumentBinder<ArgumentCommand>) binder;
+    }
+
+    /**
+     * Get the compiled {@link #subcommands} of this command. They are compiled the first time they are needed, and
+     * again only if {@link #subcommands} is reassigned.
+     *
+     * @return The compiled subcommands
+     */
+    SubcommandNode getSubcommandNode() {
+        String name = getQualifiedName();
+        ArgumentCommand[] subcommands = this.subcommands;
+        if (subcommands == null)
+            return SubcommandNode.EMPTY;
+
+        SubcommandNode node = this.subcommandNode;
+        if (node == null || !node.isCompiledFrom(name, subcommands))
+            this.subcommandNode = node = new SubcommandNode(name, subcommands);
+        return node;
+    }
+
+    /**
+     * Get the name of this command including the names of its parents, if it is a subcommand
+     *
+     * @return The qualified name (for example {@code config set}), or just the {@link #name} if this isn't a
+     * subcommand
+     */
+    public String getQualifiedName() {
+        String qualifiedName = this.qualifiedName;
+        return qualifiedName != null ? qualifiedName : name;
+    }
+
+    /**
+     * Set the name of this command including the names of its parents (done by the parent when its subcommands
+     * are compiled)
+     *
+     * @param qualifiedName The qualified name
+     */
+    void setQualifiedName(String qualifiedName) {
+        this.qualifiedName = qualifiedName;
+    }
+
+    /**
+     * Get the instrumentation of this command
+     *
+     * @return The metrics of this command
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -71,7 +261,7 @@ public abstract class ArgumentCommand extends Command {
      * @return An array of all required arguments
      */
     public Argument[] getRequiredArguments() {
-        return requiredArguments == null ? new Argument[0] : requiredArguments;
+        return requiredArguments == null ? ArgumentSchema.NO_ARGUMENTS : requiredArguments;
     }
 
     /**
@@ -80,120 +270,997 @@ public abstract class ArgumentCommand extends Command {
      * @return An array of all optional arguments
      */
     public Argument[] getOptionalArguments() {
-        return optionalArguments == null ? new Argument[0] : optionalArguments;
+        return optionalArguments == null ? ArgumentSchema.NO_ARGUMENTS : optionalArguments;
+    }
+
+    /**
+     * Get subcommands
+     *
+     * @return An array of all subcommands
+     */
+    public ArgumentCommand[] getSubcommands() {
+        return getSubcommandNode().getSubcommands().clone();
+    }
+
+    /**
+     * Get named options and flags
+     *
+     * @return An array of all options
+     */
+    public Argument[] getOptions() {
+        return options == null ? ArgumentSchema.NO_ARGUMENTS : options;
     }
 
     @Override
     protected void execute(CommandEvent event) {
-        if (getRequiredArguments().length == 0 && getOptionalArguments().length == 0) {
-            execute(event, new ArrayList<>(0));
+        String input = event.getArgs();
+        SubcommandNode node = getSubcommandNode();
+        if (node.isEmpty()) {
+            executeArguments(event, input, node);
             return;
         }
 
-        List<String> split = splitArguments(event.getArgs());
+        // Walk down the subcommands while the leading words match one (quoted words are always arguments)
+        ArgumentCommand command = this;
+        int from = 0;
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(input);
+        while (!node.isEmpty() && tokenizer.next() && !tokenizer.isQuoted()) {
+            ArgumentCommand subcommand = node.get(input.substring(tokenizer.getStart(), tokenizer.getEnd()));
+            if (subcommand == null)
+                break;
+            command = subcommand;
+            from = tokenizer.getRawEnd();
+            node = subcommand.getSubcommandNode();
+        }
+        command.executeArguments(event, from == 0 ? input : input.substring(from), node);
+    }
+
+    /**
+     * Validate the arguments against the schema of this command, and execute it if they are valid
+     *
+     * @param event The {@link CommandEvent} that triggered this Command (or its parent)
+     * @param input The arguments of this command (without the names of any subcommands)
+     * @param node  The compiled subcommands of this command, none of which matched
+     */
+    private void executeArguments(CommandEvent event, String input, SubcommandNode node) {
+        ArgumentSchema schema = getSchema();
+        if (schema.getArgumentCount() == 0 && schema.getOptionCount() == 0) {
+            // A command with subcommands but no arguments of its own can't run on its own
+            if (!node.isEmpty() && schema.getAttachmentCount() == 0) {
+                ArgumentTokenizer tokenizer = new ArgumentTokenizer(input);
+                String word = tokenizer.next() ? input.substring(tokenizer.getStart(), tokenizer.getEnd()) : null;
+                reject(event, RejectionReason.UNKNOWN_SUBCOMMAND, null,
+                        node.renderUnknown(word, event.getClient().getTextualPrefix()));
+                return;
+            }
 
-        // Proper usage string
-        String properUsage = "The proper usage would be: `" + event.getClient().getTextualPrefix() +
-                getName() + " " + getArguments() + "`";
+            dispatch(event, schema, new ArgumentValues(schema, new ArrayList<>(0), null));
+            return;
+        }
 
-        // No arguments provided but there are required arguments
-        if (split.size() == 0 && getRequiredArguments().length > 0) {
-            event.reply("You didn't provide any arguments, " + event.getAuthor().getName() + "!\n" + properUsage);
+        if (batchMode) {
+            executeBatch(event, input, schema);
             return;
         }
 
-        // There are too less arguments provided to satisfy all required arguments (if addLastArgument is true, there
-        // is no way this could be possible)
-        if (!addLastArgument && split.size() < getRequiredArguments().length) {
-            StringBuilder requiredArgs = new StringBuilder();
-            for (int i = split.size(); i < getRequiredArguments().length; i++) {
-                requiredArgs.append(getRequiredArguments()[i].getName())
-                        .append(i < getRequiredArguments().length - 1 ? ", " : "");
-            }
+        ArgumentList split = split(event, input, schema, this::reject);
+        if (split == null)
+            return;
 
-            event.reply("You didn't provide the required arg(s) \"" + requiredArgs + "\"!\n" + properUsage);
+        // Some validators are async - check all arguments at the same time, off this thread
+        if (schema.isAsync()) {
+            validateAsync(event, schema, split);
             return;
         }
 
+        ArgumentValues values = validate(event, schema, split, this::reject);
+        if (values != null)
+            dispatch(event, schema, values);
+    }
+
+    /**
+     * Receives the rejections of an invocation - {@link #reject(CommandEvent, RejectionReason, Argument, String)},
+     * or a row of a batch
+     */
+    @FunctionalInterface
+    private interface Rejection {
+        void reject(CommandEvent event, RejectionReason reason, Argument argument, String message);
+    }
+
+    /**
+     * Split the arguments and check them against the schema's limits and arity
+     *
+     * @param event     The {@link CommandEvent} that triggered this Command
+     * @param input     The arguments of this command
+     * @param schema    The schema of this command
+     * @param rejection Where to report the rejection
+     * @return The arguments, or null if they were rejected
+     */
+    private ArgumentList split(CommandEvent event, String input, ArgumentSchema schema, Rejection rejection) {
+        // Reject oversized input before doing any real work on it
+        if (exceedsLimits(event, input, schema, rejection))
+            return null;
+
+        // Only tokenize as far as needed: one token past the limit is enough to know there are too many
+        CommandMetrics metrics = this.metrics;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        ArgumentList split = schema.getOptionCount() == 0 ?
+                ArgumentList.split(input, schema.getArgumentCount(), schema.isAddLastArgument()) :
+                ArgumentList.split(input, schema.getArgumentCount(), schema.isAddLastArgument(), schema);
+        if (metrics.isEnabled()) metrics.recordTokenize(System.nanoTime() - start);
+
+        // An option which doesn't exist, or was passed the wrong way (splitting stopped there)
+        if (split.getInvalidOption() != null) {
+            rejection.reject(event, RejectionReason.INVALID_OPTION, null,
+                    schema.renderInvalidOption(split.getInvalidOption(), properUsage(event, schema)));
+            return null;
+        }
+
+        // No arguments provided but there are required arguments
+        if (split.size() == 0 && schema.getRequiredCount() > 0) {
+            rejection.reject(event, RejectionReason.NO_ARGUMENTS, null,
+                    schema.renderNoArguments(event.getAuthor().getName(), properUsage(event, schema)));
+            return null;
+        }
+
+        // There are too less arguments provided to satisfy all required arguments (this is checked even if
+        // addLastArgument is true, as the rest of the input is only added onto the last optional argument)
+        if (split.size() < schema.getRequiredCount()) {
+            rejection.reject(event, RejectionReason.MISSING_REQUIRED, null,
+                    schema.renderMissingRequired(split.size(), properUsage(event, schema)));
+            return null;
+        }
+
         // There are more provided arguments than all arguments that could be passed in (if addLastArgument is true,
         // there is no way this could be possible)
-        if (!addLastArgument && split.size() > getRequiredArguments().length + getOptionalArguments().length) {
-            event.reply("You provided too many arguments!\n" + properUsage);
+        if (split.isTruncated()) {
+            rejection.reject(event, RejectionReason.TOO_MANY, null,
+                    schema.renderTooMany(properUsage(event, schema)));
+            return null;
+        }
+        return split;
+    }
+
+    /**
+     * Check all arguments (and the values of the options which were passed) on this thread, keeping the values of
+     * any converters. The schema must not have any {@link AsyncValidator}s.
+     *
+     * @param event     The {@link CommandEvent} that triggered this Command
+     * @param schema    The schema of this command
+     * @param split     The arguments, which have already been checked against the schema's arity
+     * @param rejection Where to report the rejection
+     * @return The values, or null if an argument was rejected
+     */
+    private ArgumentValues validate(CommandEvent event, ArgumentSchema schema, ArgumentList split,
+                                    Rejection rejection) {
+        CommandMetrics metrics = this.metrics;
+        long start = 0;
+        ConverterOutput<?>[] converted = null;
+        int count = split.size() + schema.getOptionCount();
+        for (int i = 0; i < count; i++) {
+            String value = valueAt(schema, split, i);
+            if (value == null)
+                continue;
+            Argument argument = argumentAt(schema, split, i);
+
+            if (metrics.isEnabled()) start = System.nanoTime();
+            ValidatorOutput validatorOutput = argument.isValid(event, value);
+            if (metrics.isEnabled()) metrics.recordValidation(argument, System.nanoTime() - start);
+
+            if (!validatorOutput.getIsValid()) {
+                rejection.reject(event, RejectionReason.INVALID_ARGUMENT, argument,
+                        schema.renderInvalid(argument, validatorOutput, properUsage(event, schema)));
+                return null;
+            }
+
+            if (validatorOutput instanceof ConverterOutput) {
+                if (converted == null) converted = new ConverterOutput<?>[count];
+                converted[i] = (ConverterOutput<?>) validatorOutput;
+            }
+        }
+        return values(schema, split, converted);
+    }
+
+    /**
+     * Check the arguments against {@link #maxInputLength}, {@link #maxTokens} and {@link #maxArgumentLength},
+     * rejecting the invocation if any of them is exceeded. The tokens are only counted and measured (nothing is
+     * allocated), and the scan stops as soon as a limit is exceeded or there is nothing left to check.
+     *
+     * @param event     The {@link CommandEvent} that triggered this Command
+     * @param input     The arguments of this command
+     * @param schema    The schema of this command
+     * @param rejection Where to report the rejection
+     * @return Whether the invocation was rejected
+     */
+    private boolean exceedsLimits(CommandEvent event, String input, ArgumentSchema schema, Rejection rejection) {
+        int maxInputLength = this.maxInputLength;
+        int maxTokens = this.maxTokens;
+        int maxArgumentLength = this.maxArgumentLength;
+        if (maxInputLength > 0 && input.length() > maxInputLength) {
+            rejection.reject(event, RejectionReason.INPUT_TOO_LONG, null,
+                    schema.renderInputTooLong(maxInputLength, properUsage(event, schema)));
+            return true;
+        }
+        if (maxTokens <= 0 && maxArgumentLength <= 0)
+            return false;
+
+        int last = schema.getArgumentCount() - 1;
+        boolean options = schema.getOptionCount() > 0;
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(input);
+        for (int token = 0, index = 0; tokenizer.next(); token++) {
+            if (maxTokens > 0 && token >= maxTokens) {
+                rejection.reject(event, RejectionReason.TOO_MANY_TOKENS, null,
+                        schema.renderTooManyTokens(maxTokens, properUsage(event, schema)));
+                return true;
+            }
+
+            // Options are counted as tokens, but aren't one of the positional arguments
+            if (options && index <= last && !tokenizer.isQuoted() &&
+                    ArgumentList.isOption(input, tokenizer.getStart(), tokenizer.getEnd())) {
+                options = tokenizer.getEnd() - tokenizer.getStart() > 2;
+                continue;
+            }
+
+            if (maxArgumentLength > 0 && index <= last) {
+                int length;
+                if (index == last && schema.isAddLastArgument()) {
+                    // The rest of the input is joined onto the last argument with single spaces (see
+                    // ArgumentList), so measure the joined value rather than the span of the input
+                    length = tokenizer.getEnd() - tokenizer.getStart();
+                    ArgumentTokenizer rest = new ArgumentTokenizer(input, tokenizer.getPosition(), input.length());
+                    while (length <= maxArgumentLength && rest.next())
+                        length += 1 + rest.getRawEnd() - rest.getRawStart();
+                } else {
+                    length = tokenizer.getEnd() - tokenizer.getStart();
+                }
+
+                if (length > maxArgumentLength) {
+                    Argument argument = schema.getArgument(index);
+                    rejection.reject(event, RejectionReason.ARGUMENT_TOO_LONG, argument,
+                            schema.renderArgumentTooLong(argument, maxArgumentLength, properUsage(event, schema)));
+                    return true;
+                }
+            }
+
+            // Anything past the last argument is only counted (too many arguments are rejected after splitting)
+            if (maxTokens <= 0 && index >= last)
+                return false;
+            index++;
+        }
+        return false;
+    }
+
+    /**
+     * Start validating all arguments at the same time, and then execute the command on {@link #asyncExecutor}.
+     * The invocation is rejected as soon as any argument is invalid, or if the validators don't complete within
+     * {@link #validationTimeout}.
+     *
+     * @param event  The {@link CommandEvent} that triggered this Command
+     * @param schema The schema of this command
+     * @param split  The arguments, which have already been checked against the schema's arity
+     */
+    private void validateAsync(CommandEvent event, ArgumentSchema schema, ArgumentList split) {
+        ValidatorOutput[] outputs = new ValidatorOutput[split.size() + schema.getOptionCount()];
+        startValidation(event, schema, split, outputs).whenComplete((rejected, error) -> asyncExecutor.execute(() -> {
+            if (error != null) {
+                checkTimeout(error);
+                reject(event, RejectionReason.VALIDATION_TIMEOUT, null,
+                        schema.renderTimeout(properUsage(event, schema)));
+                return;
+            }
+
+            if (rejected >= 0) {
+                Argument argument = argumentAt(schema, split, rejected);
+                reject(event, RejectionReason.INVALID_ARGUMENT, argument,
+                        schema.renderInvalid(argument, outputs[rejected], properUsage(event, schema)));
+                return;
+            }
+
+            dispatch(event, schema, values(schema, split, converted(outputs)));
+        }));
+    }
+
+    /**
+     * Start validating all arguments (and the values of the options which were passed) at the same time, without
+     * waiting for any of them
+     *
+     * @param event   The {@link CommandEvent} that triggered this Command
+     * @param schema  The schema of this command
+     * @param split   The arguments, which have already been checked against the schema's arity
+     * @param outputs The array the outputs of the validators are stored in, in the validation order
+     * @return A future which completes with the index of the first argument found to be invalid (as soon as there
+     * is one), or -1 once all are valid, or fails with a {@link TimeoutException} if the validators don't complete
+     * within {@link #validationTimeout}
+     */
+    private CompletableFuture<Integer> startValidation(CommandEvent event, ArgumentSchema schema, ArgumentList split,
+                                                      ValidatorOutput[] outputs) {
+        CommandMetrics metrics = this.metrics;
+        CompletableFuture<?>[] validations = new CompletableFuture<?>[outputs.length];
+        CompletableFuture<Integer> firstRejection = new CompletableFuture<>();
+        for (int i = 0; i < outputs.length; i++) {
+            int index = i;
+            String value = valueAt(schema, split, i);
+            if (value == null) {
+                validations[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+
+            Argument argument = argumentAt(schema, split, i);
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            CompletableFuture<? extends ValidatorOutput> validation;
+            try {
+                validation = argument.isValidAsync(event, value);
+            } catch (RuntimeException e) {
+                validation = CompletableFuture.failedFuture(e);
+            }
+
+            validations[i] = validation.handle((output, error) -> {
+                if (metrics.isEnabled()) metrics.recordValidation(argument, System.nanoTime() - start);
+                outputs[index] = error == null && output != null ? output : new ValidatorOutput(false);
+                if (!outputs[index].getIsValid()) firstRejection.complete(index);
+                return null;
+            });
+        }
+
+        // An invalid argument completes the future first, so this only completes it if they are all valid
+        CompletableFuture.allOf(validations).thenRun(() -> firstRejection.complete(-1));
+        return firstRejection.orTimeout(validationTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Check that a validation failed because it timed out (see {@link #startValidation})
+     *
+     * @param error The error the validation failed with
+     * @throws IllegalStateException If it failed for any other reason
+     */
+    private static void checkTimeout(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (!(cause instanceof TimeoutException))
+            throw new IllegalStateException("Validating arguments failed", cause);
+    }
+
+    /**
+     * Collect the values of the converters from the outputs of the validators
+     *
+     * @param outputs The outputs, in the validation order
+     * @return The converted values in the same order (null where there is none), or null if there are none at all
+     */
+    private static ConverterOutput<?>[] converted(ValidatorOutput[] outputs) {
+        ConverterOutput<?>[] converted = null;
+        for (int i = 0; i < outputs.length; i++) {
+            if (outputs[i] instanceof ConverterOutput) {
+                if (converted == null) converted = new ConverterOutput<?>[outputs.length];
+                converted[i] = (ConverterOutput<?>) outputs[i];
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Get the value to validate at an index of the validation order - the arguments which were passed come
+     * first, then the named options
+     *
+     * @param schema The schema of this command
+     * @param split  The arguments
+     * @param index  The index in the validation order
+     * @return The value, or null if there is nothing to validate (an option which wasn't passed and has no default
+     * left to check, or a flag)
+     */
+    private static String valueAt(ArgumentSchema schema, ArgumentList split, int index) {
+        if (index < split.size())
+            return split.get(index);
+        int option = index - split.size();
+        if (schema.getOption(option).isFlag())
+            return null;
+        String value = split.getOption(option);
+        // A default which needs the event wasn't checked with the schema, so it is validated like a passed value
+        return value != null || schema.getOptionDefault(option) != null ? value :
+                schema.getOption(option).getDefaultValue();
+    }
+
+    /**
+     * Get the argument at an index of the validation order (see {@link #valueAt})
+     *
+     * @param schema The schema of this command
+     * @param split  The arguments
+     * @param index  The index in the validation order
+     * @return The argument or option
+     */
+    private static Argument argumentAt(ArgumentSchema schema, ArgumentList split, int index) {
+        return index < split.size() ? schema.getArgument(index) : schema.getOption(index - split.size());
+    }
+
+    /**
+     * Create the values of an invocation, filling in the named options (with their defaults if they weren't
+     * passed)
+     *
+     * @param schema    The schema of this command
+     * @param split     The validated arguments
+     * @param converted The output of each converter, in the validation order (see {@link #valueAt}, can be null)
+     * @return The values
+     */
+    private static ArgumentValues values(ArgumentSchema schema, ArgumentList split, ConverterOutput<?>[] converted) {
+        int optionCount = schema.getOptionCount();
+        if (optionCount == 0)
+            return new ArgumentValues(schema, split, converted);
+
+        String[] optionStrings = new String[optionCount];
+        ConverterOutput<?>[] optionConverted = new ConverterOutput<?>[optionCount];
+        for (int i = 0; i < optionCount; i++) {
+            optionStrings[i] = split.getOption(i);
+            if (optionStrings[i] != null) {
+                optionConverted[i] = converted == null ? null : converted[split.size() + i];
+            } else if (schema.getOption(i).getDefaultValue() != null) {
+                optionStrings[i] = schema.getOption(i).getDefaultValue();
+                // Defaults which need the event were validated with the passed arguments (see valueAt)
+                ValidatorOutput output = schema.getOptionDefault(i);
+                if (output == null)
+                    optionConverted[i] = converted == null ? null : converted[split.size() + i];
+                else if (output instanceof ConverterOutput)
+                    optionConverted[i] = (ConverterOutput<?>) output;
+            }
+        }
+        return new ArgumentValues(schema, split, converted, optionStrings, optionConverted);
+    }
+
+    /**
+     * Match the files attached to the message to the attachment arguments, in order (files beyond the attachment
+     * arguments are ignored). Only the reported sizes are checked here - the content is read by the command body.
+     *
+     * @param event     The {@link CommandEvent} that triggered this Command
+     * @param schema    The schema of this command
+     * @param rejection Where to report the rejection
+     * @return The attached file of each attachment argument (null for optional ones which weren't attached), or
+     * null if the attachments were rejected
+     */
+    private AttachmentValue[] bindAttachments(CommandEvent event, ArgumentSchema schema, Rejection rejection) {
+        List<AttachmentSource> sources = getAttachments(event);
+        int count = Math.min(sources.size(), schema.getAttachmentCount());
+        if (count < schema.getRequiredAttachmentCount()) {
+            rejection.reject(event, RejectionReason.MISSING_ATTACHMENT, null,
+                    schema.renderMissingAttachment(count, properUsage(event, schema)));
+            return null;
+        }
+
+        AttachmentValue[] attachments = new AttachmentValue[schema.getAttachmentCount()];
+        for (int i = 0; i < count; i++) {
+            Argument argument = schema.getAttachment(i);
+            AttachmentSource source = sources.get(i);
+            // Reject files which are too large before anything is downloaded
+            if (source.getSize() > argument.getMaxSize()) {
+                rejection.reject(event, RejectionReason.ATTACHMENT_TOO_LARGE, argument,
+                        schema.renderAttachmentTooLarge(argument, source.getFileName(), properUsage(event, schema)));
+                return null;
+            }
+            attachments[i] = new AttachmentValue(argument, source);
+        }
+        return attachments;
+    }
+
+    /**
+     * Run the command body on {@link #executor} (or on this thread if there is none), once the attachments are
+     * bound
+     *
+     * @param event  The {@link CommandEvent} that triggered this Command
+     * @param schema The schema of this command
+     * @param args   The validated arguments
+     */
+    private void dispatch(CommandEvent event, ArgumentSchema schema, ArgumentValues args) {
+        if (schema.getAttachmentCount() > 0) {
+            AttachmentValue[] attachments = bindAttachments(event, schema, this::reject);
+            if (attachments == null)
+                return;
+            args.setAttachments(attachments);
+        }
+
+        Executor executor = this.executor;
+        if (executor == null) {
+            executeTimed(event, args);
             return;
         }
 
-        // Check all arguments using the provided validator
-        String defaultErrorString = "You provided an invalid argument for argument `" + name + "`!\n" +
-                getArguments();
-        int i = 0;
-        for (; i < getRequiredArguments().length; i++) {
-            Argument argument = getRequiredArguments()[i];
+        CommandMetrics metrics = this.metrics;
+        long queued = metrics.isEnabled() ? System.nanoTime() : 0;
+        executor.execute(() -> {
+            if (metrics.isEnabled()) metrics.recordQueueWait(System.nanoTime() - queued);
+            executeTimed(event, args);
+        });
+    }
+
+    /**
+     * Run the command body, recording how long it took. If the body doesn't catch an
+     * {@link InvalidAttachmentException} (a file turned out to be invalid while it was read), the invocation is
+     * rejected with its message
+     *
+     * @param event The {@link CommandEvent} that triggered this Command
+     * @param args  The validated arguments
+     */
+    private void executeTimed(CommandEvent event, ArgumentValues args) {
+        CommandMetrics metrics = this.metrics;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        try {
+            execute(event, args);
+        } catch (InvalidAttachmentException e) {
+            reject(event, e.getReason(), e.getArgument(), e.getMessage() + "\n" + properUsage(event, getSchema()));
+        } finally {
+            if (metrics.isEnabled()) metrics.recordExecute(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Run a batch (see {@link #batchMode}) on {@link #executor} (or on this thread if there is none)
+     *
+     * @param event  The {@link CommandEvent} that triggered this Command
+     * @param input  The arguments of this command, one row per line
+     * @param schema The schema of this command
+     */
+    private void executeBatch(CommandEvent event, String input, ArgumentSchema schema) {
+        int lines = 1;
+        for (int i = input.indexOf('\n'); i >= 0; i = input.indexOf('\n', i + 1))
+            lines++;
+        if (maxBatchRows > 0 && lines > maxBatchRows) {
+            reject(event, RejectionReason.TOO_MANY_ROWS, null, "Your batch has too many lines! It can have at most " +
+                    maxBatchRows + ".\n" + properUsage(event, schema));
+            return;
+        }
 
-            ValidatorOutput validatorOutput;
-            if (!((validatorOutput = argument.isValid(split.get(i))).getIsValid())) {
-                event.reply((validatorOutput.getErrorMessage() == null ?
-                        defaultErrorString : validatorOutput.getErrorMessage()) + "\n" + properUsage);
+        Executor executor = this.executor;
+        if (executor == null) {
+            runBatch(event, input, schema);
+            return;
+        }
+
+        CommandMetrics metrics = this.metrics;
+        long queued = metrics.isEnabled() ? System.nanoTime() : 0;
+        executor.execute(() -> {
+            if (metrics.isEnabled()) metrics.recordQueueWait(System.nanoTime() - queued);
+            runBatch(event, input, schema);
+        });
+    }
+
+    /**
+     * Validate a batch line by line, pass the valid rows to {@link #executeBatch(CommandEvent, List)} in chunks as
+     * they are read, and reply with a summary. If the schema has {@link AsyncValidator}s, the batch is run by an
+     * {@link AsyncBatch} instead.
+     *
+     * @param event  The {@link CommandEvent} that triggered this Command
+     * @param input  The arguments of this command, one row per line
+     * @param schema The schema of this command
+     */
+    private void runBatch(CommandEvent event, String input, ArgumentSchema schema) {
+        // The attachments are shared by every row
+        AttachmentValue[] attachments = null;
+        if (schema.getAttachmentCount() > 0) {
+            attachments = bindAttachments(event, schema, this::reject);
+            if (attachments == null)
                 return;
+        }
+
+        BatchSummary summary = new BatchSummary(metrics, properUsage(event, schema));
+        BatchLines lines = new BatchLines(input);
+        if (schema.isAsync()) {
+            AsyncBatch batch = new AsyncBatch(event, schema, attachments, summary, lines);
+            batch.executor.execute(batch::advance);
+            return;
+        }
+
+        int chunkSize = Math.max(batchChunkSize, 1);
+        List<ArgumentValues> chunk = new ArrayList<>(Math.min(chunkSize, 64));
+        for (String row = lines.next(); row != null; row = lines.next()) {
+            summary.line = lines.line;
+            summary.rows++;
+            ArgumentList split = split(event, row, schema, summary);
+            ArgumentValues values = split == null ? null : validate(event, schema, split, summary);
+            if (values == null)
+                continue;
+
+            if (attachments != null)
+                values.setAttachments(attachments);
+            chunk.add(values);
+            if (chunk.size() == chunkSize) {
+                runChunk(event, chunk, summary);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty())
+            runChunk(event, chunk, summary);
+
+        event.reply(summary.render());
+    }
+
+    /**
+     * The non-empty lines of a batch, read one at a time
+     */
+    private static final class BatchLines {
+        private final String input;
+
+        /**
+         * The index the next line starts at
+         */
+        private int start;
+
+        /**
+         * The number of the last line which was read (starting at 1)
+         */
+        private int line;
+
+        private BatchLines(String input) {
+            this.input = input;
+        }
+
+        /**
+         * Read the next line which isn't blank
+         *
+         * @return The trimmed line, or null if there are no more lines
+         */
+        private String next() {
+            while (start <= input.length()) {
+                int end = input.indexOf('\n', start);
+                if (end < 0)
+                    end = input.length();
+                String row = input.substring(start, end).trim();
+                start = end + 1;
+                line++;
+                if (!row.isEmpty())
+                    return row;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A batch of a command with {@link AsyncValidator}s. At most {@link #batchChunkSize} rows are validated at once,
+     * so a long batch doesn't start a burst of lookups, and the rows are handled in the order of their lines as soon
+     * as they (and the rows before them) are validated - each chunk is passed to
+     * {@link #executeBatch(CommandEvent, List)} once its rows are ready, without waiting for the rest of the batch.
+     * <p>
+     * Nothing waits for the validators: the batch advances on {@link #executor} (or on {@link #asyncExecutor} if
+     * there is none) whenever the oldest row in flight completes, and only one step runs at a time.
+     */
+    private final class AsyncBatch {
+        private final CommandEvent event;
+        private final ArgumentSchema schema;
+        private final AttachmentValue[] attachments;
+        private final BatchSummary summary;
+        private final BatchLines lines;
+        private final Executor executor = ArgumentCommand.this.executor != null ? ArgumentCommand.this.executor :
+                asyncExecutor;
+        private final int chunkSize = Math.max(batchChunkSize, 1);
+
+        /**
+         * The rows being validated, in the order of their lines
+         */
+        private final Queue<PendingRow> pending = new ArrayDeque<>();
+        private List<ArgumentValues> chunk = new ArrayList<>();
+
+        private AsyncBatch(CommandEvent event, ArgumentSchema schema, AttachmentValue[] attachments,
+                           BatchSummary summary, BatchLines lines) {
+            this.event = event;
+            this.schema = schema;
+            this.attachments = attachments;
+            this.summary = summary;
+            this.lines = lines;
+        }
+
+        /**
+         * Handle every row at the head of the queue which is validated, starting the next rows to keep the queue
+         * full, until the oldest row is still being validated (then this runs again once it is done) or the batch
+         * is done
+         */
+        private void advance() {
+            while (true) {
+                for (String row; pending.size() < chunkSize && (row = lines.next()) != null; )
+                    pending.add(start(row));
+
+                PendingRow head = pending.peek();
+                if (head == null)
+                    break;
+                if (head.validation != null && !head.validation.isDone()) {
+                    head.validation.whenComplete((rejected, error) -> executor.execute(this::advance));
+                    return;
+                }
+                pending.remove();
+                finish(head);
             }
+
+            if (!chunk.isEmpty())
+                runChunk(event, chunk, summary);
+            event.reply(summary.render());
         }
 
-        for (; i < split.size(); i++) {
-            Argument argument = getOptionalArguments()[i - getRequiredArguments().length];
+        /**
+         * Split a row and start validating it
+         *
+         * @param row The row
+         * @return The row, which keeps its rejection if it couldn't be split
+         */
+        private PendingRow start(String row) {
+            summary.rows++;
+            PendingRow pendingRow = new PendingRow(lines.line);
+            ArgumentList split = split(event, row, schema, pendingRow);
+            if (split != null) {
+                pendingRow.split = split;
+                pendingRow.outputs = new ValidatorOutput[split.size() + schema.getOptionCount()];
+                pendingRow.validation = startValidation(event, schema, split, pendingRow.outputs);
+            }
+            return pendingRow;
+        }
+
+        /**
+         * Handle a row whose validation completed - add it to the chunk if it is valid, or reject it in the summary
+         *
+         * @param row The row
+         */
+        private void finish(PendingRow row) {
+            summary.line = row.line;
+            if (row.validation == null) {
+                summary.reject(event, row.reason, row.argument, row.message);
+                return;
+            }
 
-            ValidatorOutput validatorOutput;
-            if (!((validatorOutput = argument.isValid(split.get(i))).getIsValid())) {
-                event.reply((validatorOutput.getErrorMessage() == null ?
-                        defaultErrorString : validatorOutput.getErrorMessage()) + "\n" + properUsage);
+            int rejected;
+            try {
+                rejected = row.validation.join();
+            } catch (CompletionException e) {
+                checkTimeout(e);
+                summary.reject(event, RejectionReason.VALIDATION_TIMEOUT, null,
+                        schema.renderTimeout(summary.properUsage));
                 return;
             }
+            if (rejected >= 0) {
+                Argument argument = argumentAt(schema, row.split, rejected);
+                summary.reject(event, RejectionReason.INVALID_ARGUMENT, argument,
+                        schema.renderInvalid(argument, row.outputs[rejected], summary.properUsage));
+                return;
+            }
+
+            ArgumentValues values = values(schema, row.split, converted(row.outputs));
+            if (attachments != null)
+                values.setAttachments(attachments);
+            chunk.add(values);
+            if (chunk.size() == chunkSize) {
+                runChunk(event, chunk, summary);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+    }
+
+    /**
+     * A row of an {@link AsyncBatch} whose validation was started, which keeps its rejection until the summary gets
+     * to its line
+     */
+    private static final class PendingRow implements Rejection {
+        private final int line;
+
+        /**
+         * The arguments, the outputs of their validators, and the validation (all null if the row was rejected
+         * before it was validated)
+         */
+        private ArgumentList split;
+        private ValidatorOutput[] outputs;
+        private CompletableFuture<Integer> validation;
+
+        /**
+         * The rejection of the row before it was validated
+         */
+        private RejectionReason reason;
+        private Argument argument;
+        private String message;
+
+        private PendingRow(int line) {
+            this.line = line;
         }
 
-        // Execute!
-        execute(event, split);
+        @Override
+        public void reject(CommandEvent event, RejectionReason reason, Argument argument, String message) {
+            this.reason = reason;
+            this.argument = argument;
+            this.message = message;
+        }
     }
 
     /**
-     * The main body method of a {@link ArgumentCommand}.
+     * Pass a chunk of valid rows to {@link #executeBatch(CommandEvent, List)}, recording how long it took and if it
+     * failed
+     *
+     * @param event   The {@link CommandEvent} that triggered this Command
+     * @param chunk   The valid rows
+     * @param summary The summary of the batch
+     */
+    private void runChunk(CommandEvent event, List<ArgumentValues> chunk, BatchSummary summary) {
+        CommandMetrics metrics = this.metrics;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        try {
+            executeBatch(event, chunk);
+            summary.executed += chunk.size();
+        } catch (RuntimeException e) {
+            summary.failed += chunk.size();
+            summary.failure = e;
+        } finally {
+            if (metrics.isEnabled()) metrics.recordExecute(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The outcome of a batch, which collects the rejections of its rows instead of replying to each one
+     */
+    private static final class BatchSummary implements Rejection {
+        /**
+         * The maximum length of the summary, within Discord's limit on the length of a message
+         */
+        private static final int MAX_LENGTH = 1900;
+
+        private final CommandMetrics metrics;
+        private final String properUsage;
+        private final StringBuilder errors = new StringBuilder();
+
+        /**
+         * The line being validated, and the number of rows which were read, rejected, executed, and failed
+         */
+        private int line, rows, rejected, executed, failed;
+
+        /**
+         * The last exception thrown by {@link #executeBatch(CommandEvent, List)} (null if none)
+         */
+        private RuntimeException failure;
+
+        private BatchSummary(CommandMetrics metrics, String properUsage) {
+            this.metrics = metrics;
+            this.properUsage = properUsage;
+        }
+
+        @Override
+        public void reject(CommandEvent event, RejectionReason reason, Argument argument, String message) {
+            metrics.recordRejection(reason, argument);
+            rejected++;
+
+            // The proper usage is only shown once, at the end of the summary
+            if (message.endsWith("\n" + properUsage))
+                message = message.substring(0, message.length() - properUsage.length() - 1);
+            String error = "\n**Line " + line + ":** " + message.replace('\n', ' ');
+            // Leave room for the counts and the proper usage
+            if (errors.length() + error.length() <= MAX_LENGTH - 200)
+                errors.append(error);
+            else if (errors.indexOf("\n...") < 0)
+                errors.append("\n...");
+        }
+
+        /**
+         * Render the summary
+         *
+         * @return The reply
+         */
+        private String render() {
+            StringBuilder reply = new StringBuilder("Ran ").append(executed).append(" of ").append(rows)
+                    .append(rows == 1 ? " row" : " rows");
+            if (rejected > 0)
+                reply.append(", ").append(rejected).append(" rejected");
+            if (failed > 0)
+                reply.append(", ").append(failed).append(" failed (")
+                        .append(failure.getMessage() != null ? failure.getMessage() :
+                                failure.getClass().getSimpleName())
+                        .append(")");
+            reply.append(".").append(errors);
+            if (rejected > 0)
+                reply.append("\n").append(properUsage);
+            return reply.length() <= MAX_LENGTH ? reply.toString() : reply.substring(0, MAX_LENGTH - 3) + "...";
+        }
+    }
+
+    /**
+     * Reject an invocation, recording the reason and replying with the error message (through the
+     * {@link #errorReplyStrategy})
+     *
+     * @param event    The {@link CommandEvent} that triggered this Command
+     * @param reason   The reason the invocation was rejected
+     * @param argument The argument which was rejected (see {@link CommandMetrics#recordRejection})
+     * @param message  The error message
+     */
+    private void reject(CommandEvent event, RejectionReason reason, Argument argument, String message) {
+        metrics.recordRejection(reason, argument);
+        errorReplyStrategy.reply(event, reason, argument, message);
+    }
+
+    /**
+     * Render the proper usage line for an error message
+     *
+     * @param event  The {@link CommandEvent} that triggered this Command
+     * @param schema The schema of this command
+     * @return The proper usage line
+     */
+    private String properUsage(CommandEvent event, ArgumentSchema schema) {
+        return schema.renderProperUsage(event.getClient().getTextualPrefix());
+    }
+
+    /**
+     * The main body method of a {@link ArgumentCommand}, with typed access to the arguments (override either this
+     * or {@link #execute(CommandEvent, List)}).
+     * <br>This is the "response" for a successful
+     * {@link Command#run(CommandEvent)}.
+     * <br><br>By default, this calls the {@link Execute} method if the command has a {@link #bind(ArgumentBinder)
+     * binder}, and {@link #execute(CommandEvent, List)} with {@link ArgumentValues#asList()} otherwise
+     *
+     * @param event The {@link CommandEvent} that
+     *              triggered this Command
+     * @param args  The validated arguments, including the values of any {@link Converter}s
+     */
+    protected void execute(CommandEvent event, ArgumentValues args) {
+        ArgumentBinder<ArgumentCommand> binder = this.binder;
+        if (binder != null)
+            binder.execute(this, event, args);
+        else
+            execute(event, args.asList());
+    }
+
+    /**
+     * Get the files attached to the message, which are matched to the {@link Argument#attachment attachment
+     * arguments} in order. Override this to run the command against other files - local ones with
+     * {@link AttachmentSource#of(java.nio.file.Path)} in tests, for example.
+     * <br><br>By default, this returns the attachments of the message
+     *
+     * @param event The {@link CommandEvent} that triggered this Command
+     * @return The attached files
+     */
+    protected List<AttachmentSource> getAttachments(CommandEvent event) {
+        List<Message.Attachment> attachments = event.getMessage().getAttachments();
+        List<AttachmentSource> sources = new ArrayList<>(attachments.size());
+        for (Message.Attachment attachment : attachments)
+            sources.add(AttachmentSource.of(attachment));
+        return sources;
+    }
+
+    /**
+     * The main body method of a {@link ArgumentCommand} in {@link #batchMode}, which gets a chunk of valid rows at a
+     * time (at most {@link #batchChunkSize}). Override this to handle many rows at once, for example with a single
+     * database write. If this throws, the rows of the chunk are counted as failed in the summary, and the rest of the
+     * batch still runs.
+     * <br><br>By default, this calls {@link #execute(CommandEvent, ArgumentValues)} for each row
+     *
+     * @param event The {@link CommandEvent} that
+     *              triggered this Command
+     * @param rows  The validated arguments of each row, in the order of their lines
+     */
+    protected void executeBatch(CommandEvent event, List<ArgumentValues> rows) {
+        for (ArgumentValues row : rows)
+            execute(event, row);
+    }
+
+    /**
+     * The main body method of a {@link ArgumentCommand} (override either this or
+     * {@link #execute(CommandEvent, ArgumentValues)}, or declare an {@link Execute} method and call
+     * {@link #bind(ArgumentBinder)} - a command which does none of these fails when it is run).
      * <br>This is the "response" for a successful
      * {@link Command#run(CommandEvent)}.
      * <br><br>Docs copied from {@link Command#execute(CommandEvent)}
      *
      * @param event The {@link CommandEvent} that
      *              triggered this Command
-     * @param args  A {@link java.util.HashMap} of indexes as keys and
-     *              {@link String}s where the string is the value of the corresponding
-     *              index of a argument
+     * @param args  A {@link List} of {@link String}s where each string is the value of the argument at the
+     *              corresponding index (first required, then optional arguments)
      */
-    protected abstract void execute(CommandEvent event, List<String> args);
+    protected void execute(CommandEvent event, List<String> args) {
+        throw new IllegalStateException(getClass().getName() + " must override execute(CommandEvent, " +
+                "ArgumentValues) or execute(CommandEvent, List<String>), or call bind(...) with the binder of its " +
+                "@Execute method in its constructor!");
+    }
 
     /**
      * Override for {@link Command#getArguments()}<br><br>
      * Generate a usage string in the following format (no prefix or command name included):
      * <br><pre>{required argument: {@link Argument#getType() type}} ... [optional argument: {@link Argument#getType() type}] ...</pre>
      * Note that optional arguments <i>always</i> come after required arguments (in the same order they are specified).
+     * The string is generated once and cached in the {@link #getSchema() schema}. If the command has
+     * {@link #subcommands} but no arguments of its own, the names of the subcommands are used instead, like
+     * <pre>{set|get}</pre>
      *
      * @return The generated string in the format shown above
      */
     @Override
     public String getArguments() {
-        StringBuilder usageString = new StringBuilder();
-        for (int i = 0; i < getRequiredArguments().length; i++) {
-            Argument argument = getRequiredArguments()[i];
-            usageString.append("{")
-                    .append(argument.getName().toUpperCase())
-                    .append(argument.getType() != null ? ": " + argument.getType() : "")
-                    .append("}");
-            if (i < getRequiredArguments().length - 1 || getOptionalArguments().length > 0) usageString.append(" ");
-        }
-
-        for (int i = 0; i < getOptionalArguments().length; i++) {
-            Argument argument = getOptionalArguments()[i];
-            usageString.append("[")
-                    .append(argument.getName().toUpperCase())
-                    .append(argument.getType() != null ? ": " + argument.getType() : "")
-                    .append("]");
-            if (i < getOptionalArguments().length - 1) usageString.append(" ");
-        }
-        return usageString.toString();
+        ArgumentSchema schema = getSchema();
+        SubcommandNode node = getSubcommandNode();
+        return node.isEmpty() || schema.getArgumentCount() + schema.getOptionCount() + schema.getAttachmentCount() > 0 ?
+                schema.getUsage() :
+                node.getUsage();
     }
 }
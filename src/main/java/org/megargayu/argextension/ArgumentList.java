@@ -0,0 +1,296 @@
+package org.megargayu.argextension;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The list of arguments produced by {@link ArgumentCommand#splitArguments(String)}. The arguments are stored as
+ * offsets into the original argument string, and each {@link String} is only created the first time it is
+ * requested with {@link #get(int)}.
+ * <p>
+ * Arguments can be replaced with {@link #set(int, String)}, but the size of the list is fixed.
+ */
+public class ArgumentList extends AbstractList<String> implements RandomAccess {
+    /**
+     * The un-parsed argument string
+     */
+    private final String source;
+
+    /**
+     * The start and end offsets of every argument (without quotes), one pair per argument
+     */
+    private final int[] offsets;
+
+    /**
+     * The arguments which have already been created (or replaced)
+     */
+    private final String[] values;
+
+    /**
+     * The number of arguments
+     */
+    private final int size;
+
+    /**
+     * The offset after the last argument's own token when the rest of the input is joined onto it
+     * (see {@link ArgumentCommand#addLastArgument}), or -1 if it isn't
+     */
+    private final int tailStart;
+
+    /**
+     * The end of the region that was tokenized
+     */
+    private final int tailEnd;
+
+    /**
+     * Whether tokenizing stopped at the limit before the end of the input
+     */
+    private final boolean truncated;
+
+    /**
+     * The value of each named option (null if it wasn't passed, and an empty string for flags which were), or
+     * null if the options weren't parsed
+     */
+    private final String[] options;
+
+    /**
+     * The first option which isn't an option of the schema or was passed the wrong way, or null if there is none
+     */
+    private final String invalidOption;
+
+    private ArgumentList(String source, int[] offsets, int size, int tailStart, int tailEnd, boolean truncated) {
+        this(source, offsets, size, tailStart, tailEnd, truncated, null, null);
+    }
+
+    private ArgumentList(String source, int[] offsets, int size, int tailStart, int tailEnd, boolean truncated,
+                         String[] options, String invalidOption) {
+        this.source = source;
+        this.offsets = offsets;
+        this.values = new String[size];
+        this.size = size;
+        this.tailStart = tailStart;
+        this.tailEnd = tailEnd;
+        this.truncated = truncated;
+        this.options = options;
+        this.invalidOption = invalidOption;
+    }
+
+    /**
+     * Split a string into its arguments (see {@link ArgumentTokenizer} for the splitting rules)
+     *
+     * @param input   The un-parsed argument string
+     * @param limit   The maximum number of arguments to produce
+     * @param addLast If true, everything after the last argument is joined onto it (separated by single spaces,
+     *                with any quotes kept), otherwise tokenizing stops once the limit is reached
+     * @return The resulting list of arguments
+     */
+    public static ArgumentList split(String input, int limit, boolean addLast) {
+        return split(input, 0, input.length(), limit, addLast);
+    }
+
+    /**
+     * Split a region of a string into its arguments (see {@link ArgumentTokenizer} for the splitting rules)
+     *
+     * @param input   The un-parsed argument string
+     * @param from    The offset to start splitting at (inclusive)
+     * @param to      The offset to stop splitting at (exclusive)
+     * @param limit   The maximum number of arguments to produce
+     * @param addLast If true, everything after the last argument is joined onto it (separated by single spaces,
+     *                with any quotes kept), otherwise tokenizing stops once the limit is reached
+     * @return The resulting list of arguments
+     */
+    public static ArgumentList split(String input, int from, int to, int limit, boolean addLast) {
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(input, from, to);
+        int[] offsets = new int[2 * Math.min(Math.max(limit, 1), 8)];
+        int size = 0;
+        while (size < limit && tokenizer.next()) {
+            if (2 * size == offsets.length)
+                offsets = Arrays.copyOf(offsets, 2 * (int) Math.min(2L * size, limit));
+            offsets[2 * size] = tokenizer.getStart();
+            offsets[2 * size + 1] = tokenizer.getEnd();
+            size++;
+        }
+
+        if (size < limit || size == 0)
+            return new ArgumentList(input, offsets, size, -1, to, false);
+
+        int lastEnd = tokenizer.getRawEnd();
+        boolean hasMore = tokenizer.next();
+        if (addLast)
+            return new ArgumentList(input, offsets, size, hasMore ? lastEnd : -1, to, false);
+        return new ArgumentList(input, offsets, size, -1, to, hasMore);
+    }
+
+    /**
+     * Split a string into its arguments and the named options of a schema, in a single pass. Unquoted tokens
+     * starting with {@code --} are options ({@code --name=value}, or {@code --name} for flags) and are looked up in
+     * the schema, while every other token is an argument. A {@code --} token on its own ends the options, and so
+     * does the start of the rest of the input when it is joined onto the last argument.
+     *
+     * @param input   The un-parsed argument string
+     * @param limit   The maximum number of arguments to produce
+     * @param addLast If true, everything after the last argument is joined onto it
+     * @param schema  The schema with the options
+     * @return The resulting list of arguments, with the values of the options
+     */
+    static ArgumentList split(String input, int limit, boolean addLast, ArgumentSchema schema) {
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(input);
+        int[] offsets = new int[2 * Math.min(Math.max(limit, 1), 8)];
+        String[] options = new String[schema.getOptionCount()];
+        int size = 0;
+        int lastEnd = 0;
+        boolean parseOptions = true;
+        while (tokenizer.next()) {
+            int start = tokenizer.getStart(), end = tokenizer.getEnd();
+            // Everything from here on is joined onto the last argument, options included
+            if (addLast && size > 0 && size == limit)
+                return new ArgumentList(input, offsets, size, lastEnd, input.length(), false, options, null);
+
+            if (parseOptions && !tokenizer.isQuoted() && isOption(input, start, end)) {
+                if (end - start == 2) {
+                    parseOptions = false;
+                    continue;
+                }
+
+                int equals = input.indexOf('=', start + 2);
+                int nameEnd = equals >= 0 && equals < end ? equals : end;
+                int option = schema.optionIndexOf(input, start + 2, nameEnd);
+                if (option < 0 || schema.getOption(option).isFlag() == (nameEnd < end))
+                    return new ArgumentList(input, offsets, size, -1, input.length(), false, options,
+                            input.substring(start, end));
+                options[option] = nameEnd < end ? input.substring(nameEnd + 1, end) : "";
+                continue;
+            }
+
+            if (size == limit)
+                return new ArgumentList(input, offsets, size, -1, input.length(), true, options, null);
+            if (2 * size == offsets.length)
+                offsets = Arrays.copyOf(offsets, 2 * (int) Math.min(2L * size, limit));
+            offsets[2 * size] = start;
+            offsets[2 * size + 1] = end;
+            lastEnd = tokenizer.getRawEnd();
+            size++;
+        }
+        return new ArgumentList(input, offsets, size, -1, input.length(), false, options, null);
+    }
+
+    /**
+     * Check if a token looks like a named option (it starts with {@code --})
+     *
+     * @param input The un-parsed argument string
+     * @param start The start of the token
+     * @param end   The end of the token
+     * @return Whether the token is an option
+     */
+    static boolean isOption(String input, int start, int end) {
+        return end - start >= 2 && input.charAt(start) == '-' && input.charAt(start + 1) == '-';
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        String value = values[index];
+        if (value == null) {
+            value = index == size - 1 && tailStart >= 0 ? joinTail() :
+                    source.substring(offsets[2 * index], offsets[2 * index + 1]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String set(int index, String element) {
+        String previous = get(index);
+        values[index] = element;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the un-parsed argument string this list was split from
+     *
+     * @return The original argument string
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Get where an argument starts in {@link #getSource()}
+     *
+     * @param index The index of the argument
+     * @return The inclusive start offset of the argument (without quotes)
+     */
+    public int getStart(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return offsets[2 * index];
+    }
+
+    /**
+     * Get where an argument ends in {@link #getSource()}. If the rest of the input was joined onto the last
+     * argument, its end is the end of the input
+     *
+     * @param index The index of the argument
+     * @return The exclusive end offset of the argument (without quotes)
+     */
+    public int getEnd(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return index == size - 1 && tailStart >= 0 ? tailEnd : offsets[2 * index + 1];
+    }
+
+    /**
+     * Get if tokenizing stopped at the limit while there was still input left (this is never true if the rest
+     * of the input was joined onto the last argument)
+     *
+     * @return Whether there were more arguments than the limit
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Get the value of a named option (only if the list was split with a schema)
+     *
+     * @param index The index of the option in the schema
+     * @return The value of the option (an empty string for flags), or null if it wasn't passed
+     */
+    String getOption(int index) {
+        return options == null ? null : options[index];
+    }
+
+    /**
+     * Get the first option which isn't an option of the schema or was passed the wrong way (only if the list was
+     * split with a schema)
+     *
+     * @return The option as it was passed, or null if every option was valid
+     */
+    String getInvalidOption() {
+        return invalidOption;
+    }
+
+    /**
+     * Build the last argument when the rest of the input is joined onto it - the tokens are re-scanned so the
+     * result matches the old regex implementation exactly (the first token is unquoted, the rest keep their
+     * quotes, and all of them are separated by single spaces)
+     *
+     * @return The joined last argument
+     */
+    private String joinTail() {
+        int start = offsets[2 * size - 2];
+        StringBuilder joined = new StringBuilder(tailEnd - start)
+                .append(source, start, offsets[2 * size - 1]);
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(source, tailStart, tailEnd);
+        while (tokenizer.next())
+            joined.append(' ').append(source, tokenizer.getRawStart(), tokenizer.getRawEnd());
+        return joined.toString();
+    }
+}
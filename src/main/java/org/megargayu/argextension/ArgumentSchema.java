@@ -0,0 +1,598 @@
+package org.megargayu.argextension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled, immutable argument definition of an {@link ArgumentCommand}. It is built once per command (see
+ * {@link ArgumentCommand#getSchema()}) and holds everything the command needs to check its arguments, so
+ * successful invocations don't have to build any strings. The error messages are only rendered when an
+ * invocation fails.
+ * <p>
+ * {@link Argument#attachment Attachment arguments} are declared with the required and optional arguments, but
+ * aren't passed in the text, so they are kept apart from them: positions only count text arguments, and
+ * attachments come after the options (see {@link #indexOf(String)}).
+ */
+public class ArgumentSchema {
+    /**
+     * A shared empty argument array, used when a command doesn't set its arguments
+     */
+    static final Argument[] NO_ARGUMENTS = new Argument[0];
+
+    /**
+     * The name of the command
+     */
+    private final String commandName;
+
+    /**
+     * The arrays this schema was compiled from, used to check if it is still up to date
+     */
+    private final Argument[] requiredSource, optionalSource, optionSource;
+
+    /**
+     * Copies of the required and optional {@link Argument}s (without attachments), and of the named options
+     */
+    private final Argument[] requiredArguments, optionalArguments, options;
+
+    /**
+     * The attachment arguments - required ones first, then optional ones
+     */
+    private final Argument[] attachments;
+
+    /**
+     * The number of required attachment arguments
+     */
+    private final int requiredAttachmentCount;
+
+    /**
+     * The position of every argument by name (options come after the required and optional arguments, and
+     * attachments after the options)
+     */
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * The validator output of each option's default value (null for options without a default, and flags)
+     */
+    private final ValidatorOutput[] optionDefaults;
+
+    /**
+     * Whether everything after the last argument is added onto it (see {@link ArgumentCommand#addLastArgument})
+     */
+    private final boolean addLastArgument;
+
+    /**
+     * Whether any argument has an {@link AsyncValidator}
+     */
+    private final boolean async;
+
+    /**
+     * The usage string (see {@link ArgumentCommand#getArguments()})
+     */
+    private final String usage;
+
+    /**
+     * The end of the proper usage line, after the prefix (only the prefix depends on the command client)
+     */
+    private final String properUsageSuffix;
+
+    /**
+     * Compile a schema
+     *
+     * @param commandName       The name of the command
+     * @param requiredArguments The required arguments (can be null)
+     * @param optionalArguments The optional arguments (can be null)
+     * @param addLastArgument   Whether everything after the last argument is added onto it
+     */
+    public ArgumentSchema(String commandName, Argument[] requiredArguments, Argument[] optionalArguments,
+                          boolean addLastArgument) {
+        this(commandName, requiredArguments, optionalArguments, null, addLastArgument);
+    }
+
+    /**
+     * Compile a schema
+     *
+     * @param commandName       The name of the command
+     * @param requiredArguments The required arguments (can be null)
+     * @param optionalArguments The optional arguments (can be null)
+     * @param options           The named options and flags (can be null)
+     * @param addLastArgument   Whether everything after the last argument is added onto it
+     */
+    public ArgumentSchema(String commandName, Argument[] requiredArguments, Argument[] optionalArguments,
+                          Argument[] options, boolean addLastArgument) {
+        this.commandName = commandName;
+        this.requiredSource = requiredArguments;
+        this.optionalSource = optionalArguments;
+        this.optionSource = options;
+        Argument[] required = requiredArguments == null ? NO_ARGUMENTS : requiredArguments.clone();
+        Argument[] optional = optionalArguments == null ? NO_ARGUMENTS : optionalArguments.clone();
+        List<Argument> attachments = new ArrayList<>(0);
+        this.requiredArguments = withoutAttachments(required, attachments);
+        this.requiredAttachmentCount = attachments.size();
+        this.optionalArguments = withoutAttachments(optional, attachments);
+        this.attachments = attachments.isEmpty() ? NO_ARGUMENTS : attachments.toArray(NO_ARGUMENTS);
+        this.options = options == null ? NO_ARGUMENTS : options.clone();
+        this.addLastArgument = addLastArgument;
+        boolean async = false;
+        for (int i = 0; i < getArgumentCount(); i++) {
+            if (getArgument(i).isOption())
+                throw new IllegalArgumentException("Option `" + getArgument(i).getName() +
+                        "` must be in the options, not the required or optional arguments!");
+            indexes.putIfAbsent(getArgument(i).getName(), i);
+            async |= getArgument(i).isAsync();
+        }
+
+        this.optionDefaults = new ValidatorOutput[this.options.length];
+        for (int i = 0; i < this.options.length; i++) {
+            Argument option = this.options[i];
+            if (!option.isOption())
+                throw new IllegalArgumentException("Argument `" + option.getName() +
+                        "` must be created with Argument.option or Argument.flag to be an option!");
+            if (indexes.putIfAbsent(option.getName(), getArgumentCount() + i) != null)
+                throw new IllegalArgumentException("Duplicate argument name `" + option.getName() + "`!");
+            async |= option.isAsync();
+
+            // Defaults which need the event are converted with every invocation instead (see getOptionDefault)
+            if (option.getDefaultValue() != null && !option.isEventDependent()) {
+                // Converted without an event, as there isn't one yet
+                optionDefaults[i] = option.isValid(null, option.getDefaultValue());
+                if (!optionDefaults[i].getIsValid())
+                    throw new IllegalArgumentException("The default value of option `" + option.getName() +
+                            "` is invalid!");
+            }
+        }
+        for (int i = 0; i < this.attachments.length; i++) {
+            if (indexes.putIfAbsent(this.attachments[i].getName(), getArgumentCount() + this.options.length + i) !=
+                    null)
+                throw new IllegalArgumentException("Duplicate argument name `" + this.attachments[i].getName() +
+                        "`!");
+        }
+        this.async = async;
+        this.usage = buildUsage(required, optional);
+        this.properUsageSuffix = commandName + " " + usage + "`";
+    }
+
+    /**
+     * Check if this schema was compiled from the given definition
+     *
+     * @param commandName       The name of the command
+     * @param requiredArguments The required arguments
+     * @param optionalArguments The optional arguments
+     * @param options           The named options and flags
+     * @param addLastArgument   Whether everything after the last argument is added onto it
+     * @return Whether the definition is the one this schema was compiled from
+     */
+    boolean isCompiledFrom(String commandName, Argument[] requiredArguments, Argument[] optionalArguments,
+                           Argument[] options, boolean addLastArgument) {
+        return this.commandName == commandName && requiredSource == requiredArguments &&
+                optionalSource == optionalArguments && optionSource == options &&
+                this.addLastArgument == addLastArgument;
+    }
+
+    /**
+     * Remove the attachment arguments from an array of declared arguments
+     *
+     * @param arguments   The declared arguments
+     * @param attachments The list the attachment arguments are added to
+     * @return The arguments which are passed in the text (the same array if there are no attachments)
+     */
+    private static Argument[] withoutAttachments(Argument[] arguments, List<Argument> attachments) {
+        int count = 0;
+        for (Argument argument : arguments)
+            if (argument.isAttachment())
+                count++;
+        if (count == 0)
+            return arguments;
+
+        Argument[] text = new Argument[arguments.length - count];
+        int i = 0;
+        for (Argument argument : arguments) {
+            if (argument.isAttachment())
+                attachments.add(argument);
+            else
+                text[i++] = argument;
+        }
+        return text.length == 0 ? NO_ARGUMENTS : text;
+    }
+
+    /**
+     * Build the usage string from the arguments as they were declared (so attachments are shown in place)
+     *
+     * @param requiredArguments The declared required arguments
+     * @param optionalArguments The declared optional arguments
+     * @return The usage string
+     */
+    private String buildUsage(Argument[] requiredArguments, Argument[] optionalArguments) {
+        StringBuilder usageString = new StringBuilder();
+        for (int i = 0; i < requiredArguments.length; i++) {
+            Argument argument = requiredArguments[i];
+            usageString.append("{")
+                    .append(argument.getName().toUpperCase())
+                    .append(argument.getType() != null ? ": " + argument.getType() : "")
+                    .append("}");
+            if (i < requiredArguments.length - 1 || optionalArguments.length > 0) usageString.append(" ");
+        }
+
+        for (int i = 0; i < optionalArguments.length; i++) {
+            Argument argument = optionalArguments[i];
+            usageString.append("[")
+                    .append(argument.getName().toUpperCase())
+                    .append(argument.getType() != null ? ": " + argument.getType() : "")
+                    .append("]");
+            if (i < optionalArguments.length - 1) usageString.append(" ");
+        }
+
+        for (Argument option : options) {
+            if (usageString.length() > 0) usageString.append(" ");
+            usageString.append("[--").append(option.getName());
+            if (!option.isFlag())
+                usageString.append("=").append(option.getType() != null ? option.getType() :
+                        option.getName().toUpperCase());
+            usageString.append("]");
+        }
+        return usageString.toString();
+    }
+
+    /**
+     * Get the name of the command this schema belongs to
+     *
+     * @return The name of the command
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Get the number of required arguments (the minimum number of arguments)
+     *
+     * @return The number of required arguments
+     */
+    public int getRequiredCount() {
+        return requiredArguments.length;
+    }
+
+    /**
+     * Get the number of optional arguments
+     *
+     * @return The number of optional arguments
+     */
+    public int getOptionalCount() {
+        return optionalArguments.length;
+    }
+
+    /**
+     * Get the total number of arguments passed in the text (the maximum number of arguments)
+     *
+     * @return The number of required and optional arguments, without attachments
+     */
+    public int getArgumentCount() {
+        return requiredArguments.length + optionalArguments.length;
+    }
+
+    /**
+     * Get the argument at a position - required arguments come first, then optional arguments
+     *
+     * @param index The position of the argument
+     * @return The argument at that position
+     */
+    public Argument getArgument(int index) {
+        return index < requiredArguments.length ? requiredArguments[index] :
+                optionalArguments[index - requiredArguments.length];
+    }
+
+    /**
+     * Get the position of an argument - required arguments come first, then optional arguments, then options (at
+     * {@link #getArgumentCount()} plus their index in the options), then attachments (after the options)
+     *
+     * @param name The name of the argument
+     * @return The position of the argument, or -1 if there is no argument with that name
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get a copy of the required arguments
+     *
+     * @return An array of all required arguments, without attachments
+     */
+    public Argument[] getRequiredArguments() {
+        return requiredArguments.length == 0 ? NO_ARGUMENTS : requiredArguments.clone();
+    }
+
+    /**
+     * Get a copy of the optional arguments
+     *
+     * @return An array of all optional arguments, without attachments
+     */
+    public Argument[] getOptionalArguments() {
+        return optionalArguments.length == 0 ? NO_ARGUMENTS : optionalArguments.clone();
+    }
+
+    /**
+     * Get the number of named options and flags
+     *
+     * @return The number of options
+     */
+    public int getOptionCount() {
+        return options.length;
+    }
+
+    /**
+     * Get a named option or flag
+     *
+     * @param index The index of the option
+     * @return The option
+     */
+    public Argument getOption(int index) {
+        return options[index];
+    }
+
+    /**
+     * Get the index of a named option or flag
+     *
+     * @param name The name of the option (without the dashes)
+     * @return The index of the option, or -1 if there is no option with that name
+     */
+    public int optionIndexOf(String name) {
+        int index = indexOf(name);
+        return index < getArgumentCount() || index >= getArgumentCount() + options.length ? -1 :
+                index - getArgumentCount();
+    }
+
+    /**
+     * Get the index of a named option or flag from a region of a string, without creating a string for the name
+     *
+     * @param input The string containing the name
+     * @param start The start of the name (inclusive, without the dashes)
+     * @param end   The end of the name (exclusive)
+     * @return The index of the option, or -1 if there is no option with that name
+     */
+    public int optionIndexOf(CharSequence input, int start, int end) {
+        int length = end - start;
+        // Commands have a handful of options, so comparing them one by one beats hashing the region
+        for (int i = 0; i < options.length; i++) {
+            String name = options[i].getName();
+            if (name.length() != length)
+                continue;
+            int j = 0;
+            while (j < length && name.charAt(j) == input.charAt(start + j))
+                j++;
+            if (j == length)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Get a copy of the named options and flags
+     *
+     * @return An array of all options
+     */
+    public Argument[] getOptions() {
+        return options.length == 0 ? NO_ARGUMENTS : options.clone();
+    }
+
+    /**
+     * Get the number of attachment arguments
+     *
+     * @return The number of attachments
+     */
+    public int getAttachmentCount() {
+        return attachments.length;
+    }
+
+    /**
+     * Get the number of required attachment arguments (these come first)
+     *
+     * @return The number of required attachments
+     */
+    public int getRequiredAttachmentCount() {
+        return requiredAttachmentCount;
+    }
+
+    /**
+     * Get an attachment argument - required attachments come first, then optional ones
+     *
+     * @param index The index of the attachment
+     * @return The attachment argument
+     */
+    public Argument getAttachment(int index) {
+        return attachments[index];
+    }
+
+    /**
+     * Get the validator output of an option's default value, which is checked once when the schema is compiled.
+     * The defaults of options whose validator {@link Validator#isEventDependent() needs the event} can't be checked
+     * without an invocation, so they are validated with the passed arguments every time instead
+     *
+     * @param index The index of the option
+     * @return The output, or null if the option has no default value (or it needs the event)
+     */
+    ValidatorOutput getOptionDefault(int index) {
+        return optionDefaults[index];
+    }
+
+    /**
+     * Get if everything after the last argument is added onto it
+     *
+     * @return Whether the last argument takes the rest of the input
+     */
+    public boolean isAddLastArgument() {
+        return addLastArgument;
+    }
+
+    /**
+     * Get if any argument has an {@link AsyncValidator}, so the arguments have to be validated asynchronously
+     *
+     * @return Whether the arguments are validated asynchronously
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Get the usage string (see {@link ArgumentCommand#getArguments()})
+     *
+     * @return The cached usage string
+     */
+    public String getUsage() {
+        return usage;
+    }
+
+    /**
+     * Render the proper usage line which is appended to every error message
+     *
+     * @param prefix The prefix of the command client
+     * @return The proper usage line
+     */
+    public String renderProperUsage(String prefix) {
+        return "The proper usage would be: `" + prefix + properUsageSuffix;
+    }
+
+    /**
+     * Render the error for when no arguments were provided but some are required
+     *
+     * @param userName    The name of the user who ran the command
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderNoArguments(String userName, String properUsage) {
+        return "You didn't provide any arguments, " + userName + "!\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when not all required arguments were provided
+     *
+     * @param provided    The number of arguments that were provided
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderMissingRequired(int provided, String properUsage) {
+        StringBuilder requiredArgs = new StringBuilder();
+        for (int i = provided; i < requiredArguments.length; i++) {
+            requiredArgs.append(requiredArguments[i].getName())
+                    .append(i < requiredArguments.length - 1 ? ", " : "");
+        }
+
+        return "You didn't provide the required arg(s) \"" + requiredArgs + "\"!\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when more arguments were provided than could be passed in
+     *
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderTooMany(String properUsage) {
+        return "You provided too many arguments!\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when a validator rejected an argument
+     *
+     * @param argument        The argument that was rejected
+     * @param validatorOutput The output of the validator
+     * @param properUsage     The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderInvalid(Argument argument, ValidatorOutput validatorOutput, String properUsage) {
+        return (validatorOutput.getErrorMessage() == null ?
+                "You provided an invalid argument for argument `" + argument.getName() + "`!\n" + usage :
+                validatorOutput.getErrorMessage()) + "\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when the {@link AsyncValidator}s didn't complete in time
+     *
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderTimeout(String properUsage) {
+        return "Checking your arguments took too long, please try again!\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when the arguments are longer than the command allows
+     *
+     * @param maxLength   The maximum length of the arguments
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderInputTooLong(int maxLength, String properUsage) {
+        return "Your arguments are too long! They can be at most " + maxLength + " characters.\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when the arguments have more tokens than the command allows
+     *
+     * @param maxTokens   The maximum number of tokens
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderTooManyTokens(int maxTokens, String properUsage) {
+        return "Your arguments have too many words! They can have at most " + maxTokens + ".\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when an argument is longer than the command allows
+     *
+     * @param argument    The argument that was too long
+     * @param maxLength   The maximum length of an argument
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderArgumentTooLong(Argument argument, int maxLength, String properUsage) {
+        return "Argument `" + argument.getName() + "` is too long! It can be at most " + maxLength +
+                " characters.\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when not all required attachments were attached
+     *
+     * @param attached    The number of files that were attached
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderMissingAttachment(int attached, String properUsage) {
+        StringBuilder files = new StringBuilder();
+        for (int i = attached; i < requiredAttachmentCount; i++) {
+            files.append(attachments[i].getName())
+                    .append(i < requiredAttachmentCount - 1 ? ", " : "");
+        }
+
+        return "You didn't attach the required file(s) \"" + files + "\"!\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when an attached file is larger than its argument allows
+     *
+     * @param argument    The attachment argument
+     * @param fileName    The name of the file
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderAttachmentTooLarge(Argument argument, String fileName, String properUsage) {
+        return "`" + fileName + "` is too large for argument `" + argument.getName() + "`! It can be at most " +
+                AttachmentValue.formatSize(argument.getMaxSize()) + ".\n" + properUsage;
+    }
+
+    /**
+     * Render the error for when an option isn't one of the command's options, or is passed the wrong way
+     *
+     * @param token       The option as it was passed (for example {@code --limit})
+     * @param properUsage The proper usage line - {@link #renderProperUsage(String)}
+     * @return The error message
+     */
+    public String renderInvalidOption(String token, String properUsage) {
+        int equals = token.indexOf('=');
+        int option = optionIndexOf(token.substring(2, equals < 0 ? token.length() : equals));
+        if (option < 0)
+            return "`" + token + "` isn't an option of this command!\n" + properUsage;
+        return (options[option].isFlag() ? "`--" + options[option].getName() + "` doesn't take a value!\n" :
+                "`--" + options[option].getName() + "` needs a value, like `--" + options[option].getName() +
+                        "=value`!\n") + properUsage;
+    }
+}
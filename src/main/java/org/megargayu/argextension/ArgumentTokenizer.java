@@ -0,0 +1,179 @@
+package org.megargayu.argextension;
+
+/**
+ * A single-pass tokenizer for argument strings. It splits on quotes and whitespace the same way
+ * {@link ArgumentCommand#splitArguments(String)} always has:
+ * <ul>
+ *     <li>A token starting with {@code "} or {@code '} runs to the next matching quote (the quotes are not
+ *     part of the token, and the token may contain whitespace)</li>
+ *     <li>Any other token (including one starting with a quote that is never closed) runs until the next
+ *     whitespace character</li>
+ * </ul>
+ * The tokenizer never creates any strings - it only moves a cursor over the input and exposes the offsets of the
+ * current token, so callers can decide what (if anything) to copy out of the input.
+ */
+public class ArgumentTokenizer {
+    /**
+     * The string being tokenized
+     */
+    private final String input;
+
+    /**
+     * The (exclusive) end of the region being tokenized
+     */
+    private final int limit;
+
+    /**
+     * Where the next call to {@link #next()} starts scanning
+     */
+    private int position;
+
+    /**
+     * The offsets of the current token, without quotes
+     */
+    private int start, end;
+
+    /**
+     * The offsets of the current token, including quotes
+     */
+    private int rawStart, rawEnd;
+
+    /**
+     * Create a tokenizer over the whole input
+     *
+     * @param input The un-parsed argument string
+     */
+    public ArgumentTokenizer(String input) {
+        this(input, 0, input.length());
+    }
+
+    /**
+     * Create a tokenizer over a region of the input
+     *
+     * @param input The un-parsed argument string
+     * @param from  The offset to start tokenizing at (inclusive)
+     * @param to    The offset to stop tokenizing at (exclusive)
+     */
+    public ArgumentTokenizer(String input, int from, int to) {
+        if (from < 0 || to > input.length() || from > to)
+            throw new IndexOutOfBoundsException("Invalid region " + from + "-" + to + " for length " + input.length());
+        this.input = input;
+        this.position = from;
+        this.limit = to;
+    }
+
+    /**
+     * Check if a character is whitespace, using the same definition as the regex {@code \s}
+     * (spaces, tabs, line breaks, vertical tabs and form feeds)
+     *
+     * @param c The character to check
+     * @return Whether the character separates tokens
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Move the cursor to the next token
+     *
+     * @return Whether there was another token (if false, the token offsets are left unchanged)
+     */
+    public boolean next() {
+        int i = position;
+        while (i < limit && isWhitespace(input.charAt(i))) i++;
+        if (i >= limit) {
+            position = limit;
+            return false;
+        }
+
+        char c = input.charAt(i);
+        if (c == '"' || c == '\'') {
+            int close = input.indexOf(c, i + 1);
+            if (close >= 0 && close < limit) {
+                rawStart = i;
+                start = i + 1;
+                end = close;
+                rawEnd = position = close + 1;
+                return true;
+            }
+        }
+
+        int j = i + 1;
+        while (j < limit && !isWhitespace(input.charAt(j))) j++;
+        rawStart = start = i;
+        rawEnd = end = position = j;
+        return true;
+    }
+
+    /**
+     * Get the string being tokenized
+     *
+     * @return The input string
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Get the offset the next call to {@link #next()} will start scanning at
+     *
+     * @return The current position of the cursor
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Get the (exclusive) end of the region being tokenized
+     *
+     * @return The end offset of the region
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the start of the current token, without the opening quote
+     *
+     * @return The inclusive start offset of the current token
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end of the current token, without the closing quote
+     *
+     * @return The exclusive end offset of the current token
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the start of the current token, including the opening quote
+     *
+     * @return The inclusive start offset of the current token as it was written
+     */
+    public int getRawStart() {
+        return rawStart;
+    }
+
+    /**
+     * Get the end of the current token, including the closing quote
+     *
+     * @return The exclusive end offset of the current token as it was written
+     */
+    public int getRawEnd() {
+        return rawEnd;
+    }
+
+    /**
+     * Get if the current token was surrounded by quotes
+     *
+     * @return Whether the current token was quoted
+     */
+    public boolean isQuoted() {
+        return start != rawStart;
+    }
+}
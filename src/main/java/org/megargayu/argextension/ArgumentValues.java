@@ -0,0 +1,414 @@
+package org.megargayu.argextension;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The validated arguments of an {@link ArgumentCommand} invocation, passed to
+ * {@link ArgumentCommand#execute(com.jagrosh.jdautilities.command.CommandEvent, ArgumentValues)}.
+ * <p>
+ * Arguments can be accessed by position (required arguments first, then optional arguments) or by
+ * {@link Argument#getName() name}. Arguments with a {@link Converter} were converted while they were validated,
+ * so their values can be read with the typed getters (the primitive getters don't box).
+ * <p>
+ * Named options come after the positional arguments (see {@link ArgumentSchema#indexOf(String)}), and are present
+ * if they were passed or have a default value. Flags are always present, and are read with {@link #getBoolean}.
+ * <p>
+ * Attachments come after the options, are present if a file was attached for them, and are read with
+ * {@link #getAttachment} (their string is the name of the file).
+ */
+public class ArgumentValues {
+    /**
+     * The converted values of flags which were and weren't passed
+     */
+    private static final ConverterOutput<Boolean> FLAG_SET = ConverterOutput.ofBoolean(true),
+            FLAG_UNSET = ConverterOutput.ofBoolean(false);
+
+    /**
+     * The schema of the command
+     */
+    private final ArgumentSchema schema;
+
+    /**
+     * The arguments as strings
+     */
+    private final List<String> strings;
+
+    /**
+     * The output of each argument's {@link Converter} (null for arguments without one)
+     */
+    private final ConverterOutput<?>[] converted;
+
+    /**
+     * The value of each named option (null for options which weren't passed and have no default)
+     */
+    private final String[] optionStrings;
+
+    /**
+     * The output of each named option's {@link Converter} (null for options without one)
+     */
+    private final ConverterOutput<?>[] optionConverted;
+
+    /**
+     * The attached file of each attachment argument (null for attachments which weren't attached, and can be null
+     * if nothing was attached)
+     */
+    private AttachmentValue[] attachments;
+
+    /**
+     * Create the values of an invocation
+     *
+     * @param schema    The schema of the command
+     * @param strings   The arguments as strings
+     * @param converted The output of each argument's {@link Converter} (can be null if nothing was converted)
+     */
+    public ArgumentValues(ArgumentSchema schema, List<String> strings, ConverterOutput<?>[] converted) {
+        this(schema, strings, converted, null, null);
+    }
+
+    /**
+     * Create the values of an invocation with named options
+     *
+     * @param schema          The schema of the command
+     * @param strings         The arguments as strings
+     * @param converted       The output of each argument's {@link Converter} (can be null if nothing was
+     *                        converted)
+     * @param optionStrings   The value of each option, in the order of the schema's options (null for options
+     *                        which weren't passed and have no default, any value for flags which were passed, and
+     *                        can be null if there are no options)
+     * @param optionConverted The output of each option's {@link Converter} (can be null if nothing was converted
+     *                        - flags are converted to booleans by this class)
+     */
+    public ArgumentValues(ArgumentSchema schema, List<String> strings, ConverterOutput<?>[] converted,
+                          String[] optionStrings, ConverterOutput<?>[] optionConverted) {
+        this.schema = schema;
+        this.strings = strings;
+        this.converted = converted;
+        this.optionStrings = optionStrings;
+        this.optionConverted = optionConverted;
+    }
+
+    /**
+     * Set the attached files of the invocation
+     *
+     * @param attachments The attached file of each attachment argument, in the order of the schema's attachments
+     *                    (null for attachments which weren't attached)
+     */
+    void setAttachments(AttachmentValue[] attachments) {
+        this.attachments = attachments;
+    }
+
+    /**
+     * Get the number of arguments that were provided
+     *
+     * @return The number of arguments
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * Get if an argument was provided
+     *
+     * @param index The position of the argument
+     * @return Whether the argument was provided
+     */
+    public boolean isPresent(int index) {
+        if (index >= 0 && index < strings.size())
+            return true;
+        int option = index - schema.getArgumentCount();
+        if (option >= schema.getOptionCount()) {
+            int attachment = option - schema.getOptionCount();
+            return attachment < schema.getAttachmentCount() && attachments != null && attachments[attachment] != null;
+        }
+        return option >= 0 &&
+                (schema.getOption(option).isFlag() || optionStrings != null && optionStrings[option] != null);
+    }
+
+    /**
+     * Get if an argument was provided
+     *
+     * @param name The name of the argument
+     * @return Whether the argument was provided
+     */
+    public boolean isPresent(String name) {
+        return isPresent(indexOf(name));
+    }
+
+    /**
+     * Get an argument as it was written (without quotes)
+     *
+     * @param index The position of the argument
+     * @return The argument
+     */
+    public String getString(int index) {
+        checkPresent(index);
+        return stringAt(index);
+    }
+
+    /**
+     * Get an argument as it was written (without quotes)
+     *
+     * @param name The name of the argument
+     * @return The argument
+     */
+    public String getString(String name) {
+        return getString(indexOf(name));
+    }
+
+    /**
+     * Get an argument as it was written (without quotes), or a default if it wasn't provided
+     *
+     * @param name         The name of the argument
+     * @param defaultValue The value to return if the argument wasn't provided
+     * @return The argument
+     */
+    public String getString(String name, String defaultValue) {
+        int index = indexOf(name);
+        return isPresent(index) ? getString(index) : defaultValue;
+    }
+
+    /**
+     * Get the converted value of an argument
+     *
+     * @param index The position of the argument
+     * @param <T>   The type of the converted value
+     * @return The converted value, or the argument as it was written if it has no {@link Converter}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index) {
+        checkPresent(index);
+        ConverterOutput<?> output = convertedAt(index);
+        return output != null ? (T) output.getValue() : (T) stringAt(index);
+    }
+
+    /**
+     * Get the converted value of an argument
+     *
+     * @param name The name of the argument
+     * @param <T>  The type of the converted value
+     * @return The converted value, or the argument as it was written if it has no {@link Converter}
+     */
+    public <T> T get(String name) {
+        return get(indexOf(name));
+    }
+
+    /**
+     * Get the converted value of an argument as an int
+     *
+     * @param index The position of the argument
+     * @return The converted value
+     */
+    public int getInt(int index) {
+        return getConverted(index).getInt();
+    }
+
+    /**
+     * Get the converted value of an argument as an int
+     *
+     * @param name The name of the argument
+     * @return The converted value
+     */
+    public int getInt(String name) {
+        return getInt(indexOf(name));
+    }
+
+    /**
+     * Get the converted value of an argument as an int, or a default if it wasn't provided
+     *
+     * @param name         The name of the argument
+     * @param defaultValue The value to return if the argument wasn't provided
+     * @return The converted value
+     */
+    public int getInt(String name, int defaultValue) {
+        int index = indexOf(name);
+        return isPresent(index) ? getInt(index) : defaultValue;
+    }
+
+    /**
+     * Get the converted value of an argument as a long
+     *
+     * @param index The position of the argument
+     * @return The converted value
+     */
+    public long getLong(int index) {
+        return getConverted(index).getLong();
+    }
+
+    /**
+     * Get the converted value of an argument as a long
+     *
+     * @param name The name of the argument
+     * @return The converted value
+     */
+    public long getLong(String name) {
+        return getLong(indexOf(name));
+    }
+
+    /**
+     * Get the converted value of an argument as a long, or a default if it wasn't provided
+     *
+     * @param name         The name of the argument
+     * @param defaultValue The value to return if the argument wasn't provided
+     * @return The converted value
+     */
+    public long getLong(String name, long defaultValue) {
+        int index = indexOf(name);
+        return isPresent(index) ? getLong(index) : defaultValue;
+    }
+
+    /**
+     * Get the converted value of an argument as a double
+     *
+     * @param index The position of the argument
+     * @return The converted value
+     */
+    public double getDouble(int index) {
+        return getConverted(index).getDouble();
+    }
+
+    /**
+     * Get the converted value of an argument as a double
+     *
+     * @param name The name of the argument
+     * @return The converted value
+     */
+    public double getDouble(String name) {
+        return getDouble(indexOf(name));
+    }
+
+    /**
+     * Get the converted value of an argument as a double, or a default if it wasn't provided
+     *
+     * @param name         The name of the argument
+     * @param defaultValue The value to return if the argument wasn't provided
+     * @return The converted value
+     */
+    public double getDouble(String name, double defaultValue) {
+        int index = indexOf(name);
+        return isPresent(index) ? getDouble(index) : defaultValue;
+    }
+
+    /**
+     * Get the converted value of an argument as a boolean
+     *
+     * @param index The position of the argument
+     * @return The converted value
+     */
+    public boolean getBoolean(int index) {
+        return getConverted(index).getBoolean();
+    }
+
+    /**
+     * Get the converted value of an argument as a boolean
+     *
+     * @param name The name of the argument
+     * @return The converted value
+     */
+    public boolean getBoolean(String name) {
+        return getBoolean(indexOf(name));
+    }
+
+    /**
+     * Get the converted value of an argument as a boolean, or a default if it wasn't provided
+     *
+     * @param name         The name of the argument
+     * @param defaultValue The value to return if the argument wasn't provided
+     * @return The converted value
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        int index = indexOf(name);
+        return isPresent(index) ? getBoolean(index) : defaultValue;
+    }
+
+    /**
+     * Get the file attached for an attachment argument
+     *
+     * @param name The name of the attachment argument
+     * @return The attached file, which is read as it is streamed
+     */
+    public AttachmentValue getAttachment(String name) {
+        int index = indexOf(name);
+        checkPresent(index);
+        int attachment = index - schema.getArgumentCount() - schema.getOptionCount();
+        if (attachment < 0)
+            throw new IllegalStateException("Argument `" + argumentAt(index).getName() + "` isn't an attachment!");
+        return attachments[attachment];
+    }
+
+    /**
+     * Get the file attached for an attachment argument, or null if it wasn't attached
+     *
+     * @param name The name of the attachment argument
+     * @return The attached file, or null
+     */
+    public AttachmentValue getAttachmentOrNull(String name) {
+        return isPresent(indexOf(name)) ? getAttachment(name) : null;
+    }
+
+    /**
+     * Get the arguments as strings, in the same format as
+     * {@link ArgumentCommand#execute(com.jagrosh.jdautilities.command.CommandEvent, List)}
+     *
+     * @return The list of arguments
+     */
+    public List<String> asList() {
+        return strings;
+    }
+
+    private int indexOf(String name) {
+        int index = schema.indexOf(name);
+        if (index < 0)
+            throw new IllegalArgumentException("No argument named `" + name + "`!");
+        return index;
+    }
+
+    private void checkPresent(int index) {
+        if (!isPresent(index))
+            throw new NoSuchElementException("Argument " + (index >= 0 && index < schema.getArgumentCount() +
+                    schema.getOptionCount() + schema.getAttachmentCount() ? "`" + argumentAt(index).getName() + "`" :
+                    index) + " wasn't provided!");
+    }
+
+    private ConverterOutput<?> getConverted(int index) {
+        checkPresent(index);
+        ConverterOutput<?> output = convertedAt(index);
+        if (output == null)
+            throw new IllegalStateException("Argument `" + argumentAt(index).getName() + "` has no converter!");
+        return output;
+    }
+
+    private Argument argumentAt(int index) {
+        if (index < schema.getArgumentCount())
+            return schema.getArgument(index);
+        int option = index - schema.getArgumentCount();
+        return option < schema.getOptionCount() ? schema.getOption(option) :
+                schema.getAttachment(option - schema.getOptionCount());
+    }
+
+    private String stringAt(int index) {
+        if (index < strings.size())
+            return strings.get(index);
+        int option = index - schema.getArgumentCount();
+        if (option >= schema.getOptionCount())
+            return attachments[option - schema.getOptionCount()].getFileName();
+        if (schema.getOption(option).isFlag())
+            return String.valueOf(isFlagSet(option));
+        return optionStrings[option];
+    }
+
+    private ConverterOutput<?> convertedAt(int index) {
+        if (index < strings.size())
+            return converted == null ? null : converted[index];
+        int option = index - schema.getArgumentCount();
+        if (option >= schema.getOptionCount())
+            return null;
+        if (schema.getOption(option).isFlag())
+            return isFlagSet(option) ? FLAG_SET : FLAG_UNSET;
+        return optionConverted == null ? null : optionConverted[option];
+    }
+
+    private boolean isFlagSet(int option) {
+        return optionStrings != null && optionStrings[option] != null;
+    }
+}
@@ -0,0 +1,47 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Validator} for an {@link Argument} which completes asynchronously (for example when it needs a
+ * database query or a member lookup). If any argument of an {@link ArgumentCommand} has an async validator, all
+ * of its arguments are validated at the same time and the command body runs on
+ * {@link ArgumentCommand#asyncExecutor} instead of the thread which received the event.
+ * <p>
+ * The future can complete with a {@link ConverterOutput} to convert the value as well. If the future completes
+ * exceptionally, the value is treated as invalid.
+ */
+@FunctionalInterface
+public interface AsyncValidator extends Validator {
+    /**
+     * Check if value is valid
+     *
+     * @param value The value to check
+     * @return A future which completes with if the output is valid and the error string (null if none provided)
+     */
+    CompletableFuture<? extends ValidatorOutput> isValidAsync(String value);
+
+    /**
+     * Check if value is valid. Override this if the validator needs the event
+     *
+     * @param event The {@link CommandEvent} that triggered the command
+     * @param value The value to check
+     * @return A future which completes with if the output is valid and the error string (null if none provided)
+     */
+    default CompletableFuture<? extends ValidatorOutput> isValidAsync(CommandEvent event, String value) {
+        return isValidAsync(value);
+    }
+
+    /**
+     * Check if value is valid, blocking until the async check completes
+     *
+     * @param value The value to check
+     * @return If the output is valid and the error string (null if none provided)
+     */
+    @Override
+    default ValidatorOutput isValid(String value) {
+        return isValidAsync(value).join();
+    }
+}
@@ -0,0 +1,92 @@
+package org.megargayu.argextension;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The lines of an attachment (see {@link AttachmentValue#lines()}), read one at a time as they are iterated. Each
+ * line is checked with the validator of the attachment argument when it is read, and an invalid line throws an
+ * {@link InvalidAttachmentException}, so a command only ever sees valid lines. Only the current line is held in
+ * memory.
+ * <p>
+ * Errors reading the content are thrown as {@link UncheckedIOException}s.
+ */
+public class AttachmentLines implements Iterator<String>, Closeable {
+    private final AttachmentValue attachment;
+    private final BufferedReader reader;
+
+    /**
+     * The next line (null if it hasn't been read yet, or there are no more lines)
+     */
+    private String next;
+
+    /**
+     * The number of the last line which was read (starting at 1)
+     */
+    private int lineNumber;
+
+    /**
+     * Create the lines of an attachment
+     *
+     * @param attachment The attachment
+     * @param stream     A stream of the content of the attachment
+     */
+    AttachmentLines(AttachmentValue attachment, InputStream stream) {
+        this.attachment = attachment;
+        this.reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null)
+            return true;
+        try {
+            next = reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (next == null)
+            return false;
+
+        lineNumber++;
+        Argument argument = attachment.getArgument();
+        ValidatorOutput output = argument.isValid(next);
+        if (!output.getIsValid()) {
+            next = null;
+            throw new InvalidAttachmentException(RejectionReason.INVALID_ATTACHMENT, argument,
+                    "Line " + lineNumber + " of `" + attachment.getFileName() + "` is invalid!" +
+                            (output.getErrorMessage() != null ? " " + output.getErrorMessage() : ""));
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        String line = next;
+        next = null;
+        return line;
+    }
+
+    /**
+     * Get the number of the last line which was read
+     *
+     * @return The line number (starting at 1), or 0 if no line was read yet
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,100 @@
+package org.megargayu.argextension;
+
+import net.dv8tion.jda.api.entities.Message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Where the content of an attachment argument (see {@link Argument#attachment}) comes from - a file attached to a
+ * message, or a local file (when testing, for example). The content is only read when
+ * {@link #openStream()} is called, and can be read more than once.
+ */
+public interface AttachmentSource {
+    /**
+     * Get the name of the file
+     *
+     * @return The file name
+     */
+    String getFileName();
+
+    /**
+     * Get the size of the file, as it was reported before reading it
+     *
+     * @return The size in bytes
+     */
+    long getSize();
+
+    /**
+     * Start reading the content of the file (the caller has to close the stream)
+     *
+     * @return A stream of the content
+     * @throws IOException If the content can't be read
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * The source of a file attached to a message, which is downloaded while it is read
+     *
+     * @param attachment The attachment
+     * @return The source
+     */
+    static AttachmentSource of(Message.Attachment attachment) {
+        return new AttachmentSource() {
+            @Override
+            public String getFileName() {
+                return attachment.getFileName();
+            }
+
+            @Override
+            public long getSize() {
+                return attachment.getSize();
+            }
+
+            @Override
+            public InputStream openStream() throws IOException {
+                try {
+                    return attachment.retrieveInputStream().get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Couldn't download attachment " + attachment.getFileName() + "!",
+                            e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while downloading attachment " +
+                            attachment.getFileName() + "!");
+                }
+            }
+        };
+    }
+
+    /**
+     * The source of a local file
+     *
+     * @param file The file
+     * @return The source
+     * @throws IOException If the size of the file can't be read
+     */
+    static AttachmentSource of(Path file) throws IOException {
+        long size = Files.size(file);
+        return new AttachmentSource() {
+            @Override
+            public String getFileName() {
+                return file.getFileName().toString();
+            }
+
+            @Override
+            public long getSize() {
+                return size;
+            }
+
+            @Override
+            public InputStream openStream() throws IOException {
+                return Files.newInputStream(file);
+            }
+        };
+    }
+}
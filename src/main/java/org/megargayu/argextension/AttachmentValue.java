@@ -0,0 +1,138 @@
+package org.megargayu.argextension;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The value of an attachment argument (see {@link Argument#attachment}) in {@link ArgumentValues}. The content is
+ * never held in memory: it is streamed from the {@link AttachmentSource} while the command reads it, and reading
+ * more than the {@link Argument#getMaxSize() maximum size} of the argument throws an
+ * {@link InvalidAttachmentException} (the size reported by Discord is checked before the command runs, but local
+ * files and streams can be longer).
+ */
+public final class AttachmentValue {
+    private final Argument argument;
+    private final AttachmentSource source;
+
+    /**
+     * Create the value of an attachment argument
+     *
+     * @param argument The attachment argument
+     * @param source   The attached file
+     */
+    AttachmentValue(Argument argument, AttachmentSource source) {
+        this.argument = argument;
+        this.source = source;
+    }
+
+    /**
+     * Get the attachment argument
+     *
+     * @return The argument
+     */
+    public Argument getArgument() {
+        return argument;
+    }
+
+    /**
+     * Get the name of the file
+     *
+     * @return The file name
+     */
+    public String getFileName() {
+        return source.getFileName();
+    }
+
+    /**
+     * Get the size of the file, as it was reported before reading it
+     *
+     * @return The size in bytes
+     */
+    public long getSize() {
+        return source.getSize();
+    }
+
+    /**
+     * Start reading the content of the file, without validating it (the caller has to close the stream)
+     *
+     * @return A stream of the content, which throws an {@link InvalidAttachmentException} if it is read past the
+     * maximum size
+     * @throws IOException If the content can't be read
+     */
+    public InputStream openStream() throws IOException {
+        return new BoundedInputStream(source.openStream());
+    }
+
+    /**
+     * Start reading the content of the file line by line (as UTF-8), validating each line with the validator of the
+     * argument as it is read (the caller has to close the lines)
+     *
+     * @return The lines
+     * @throws IOException If the content can't be read
+     */
+    public AttachmentLines lines() throws IOException {
+        return new AttachmentLines(this, openStream());
+    }
+
+    /**
+     * A stream which fails once more than the maximum size of the argument is read
+     */
+    private final class BoundedInputStream extends FilterInputStream {
+        private long remaining = argument.getMaxSize();
+
+        private BoundedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0)
+                count(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long read) {
+            remaining -= read;
+            if (remaining < 0)
+                throw new InvalidAttachmentException(RejectionReason.ATTACHMENT_TOO_LARGE, argument,
+                        "`" + getFileName() + "` is too large! It can be at most " +
+                                formatSize(argument.getMaxSize()) + ".");
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Format a size for error messages and help
+     *
+     * @param bytes The size in bytes
+     * @return The size, like {@code 512 KB} (in the largest unit it is a whole number of)
+     */
+    static String formatSize(long bytes) {
+        if (bytes >= 1024 * 1024 && bytes % (1024 * 1024) == 0)
+            return bytes / (1024 * 1024) + " MB";
+        if (bytes >= 1024 && bytes % 1024 == 0)
+            return bytes / 1024 + " KB";
+        return bytes + " bytes";
+    }
+}
@@ -0,0 +1,138 @@
+package org.megargayu.argextension;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link Executor} which runs at most {@code maxConcurrency} tasks at once on another executor, queueing the
+ * rest. No thread is blocked while a task waits, so it can be used to limit {@link CommandExecutors#virtualThreads()
+ * virtual threads} and platform thread pools alike.
+ * <p>
+ * Bounded executors can be stacked to combine limits - for example, a shared executor for a global limit, and an
+ * executor per command (set as {@link ArgumentCommand#executor}) for a per-command limit:
+ * <pre>
+ * BoundedExecutor global = CommandExecutors.virtualThreads(1000);
+ * this.executor = new BoundedExecutor(global, 50);
+ * </pre>
+ * If the wrapped executor rejects a task (for example because it was shut down), the task is dropped. The
+ * rejection is thrown to the caller of {@link #execute(Runnable)} if it was that caller's task; a task which was
+ * queued and is rejected later, when its submitter has already returned, is only counted (see
+ * {@link #getRejectedCount()}).
+ */
+public class BoundedExecutor implements Executor, BoundedExecutorMXBean {
+    private final Executor executor;
+    private final int maxConcurrency;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a bounded executor
+     *
+     * @param executor       The executor to run the tasks on
+     * @param maxConcurrency The maximum number of tasks to run at once
+     */
+    public BoundedExecutor(Executor executor, int maxConcurrency) {
+        if (executor == null)
+            throw new IllegalArgumentException("Executor cannot be null!");
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("Max concurrency must be positive!");
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Run a task once there is room for it
+     *
+     * @param task The task
+     * @throws RuntimeException If the wrapped executor rejects this task while it is handed over in this call (for
+     *                          example when it is shut down). The task is dropped
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (task == null)
+            throw new IllegalArgumentException("Task cannot be null!");
+        queue.offer(task);
+        queueDepth.incrementAndGet();
+        drain(task);
+    }
+
+    /**
+     * Start queued tasks until the queue is empty or the limit is reached. This is called after every task is
+     * queued and every task completes, so a task is never left in the queue while there is room to run it. Tasks
+     * the wrapped executor rejects are dropped.
+     *
+     * @param own The task of the caller, whose rejection is thrown (null if there is none)
+     * @throws RuntimeException If the wrapped executor rejects the caller's task
+     */
+    private void drain(Runnable own) {
+        while (!queue.isEmpty()) {
+            int current = active.get();
+            if (current >= maxConcurrency)
+                return;
+            if (!active.compareAndSet(current, current + 1))
+                continue;
+
+            Runnable task = queue.poll();
+            if (task == null) {
+                // Another thread took the last task - give the slot back and check again
+                active.decrementAndGet();
+                continue;
+            }
+            queueDepth.decrementAndGet();
+
+            try {
+                executor.execute(() -> run(task));
+            } catch (RuntimeException e) {
+                active.decrementAndGet();
+                if (task == own)
+                    throw e;
+                // The submitter of the task has already returned, so there is no one to throw to
+                rejected.increment();
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            drain(null);
+        }
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the executor the tasks are run on
+     *
+     * @return The wrapped executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package org.megargayu.argextension;
+
+/**
+ * The JMX view of a {@link BoundedExecutor} - see {@link JmxMetricsExporter}
+ */
+public interface BoundedExecutorMXBean {
+    /**
+     * @return The maximum number of tasks which run at once
+     */
+    int getMaxConcurrency();
+
+    /**
+     * @return The number of tasks which are running
+     */
+    int getActiveCount();
+
+    /**
+     * @return The number of tasks waiting to run
+     */
+    int getQueueDepth();
+
+    /**
+     * @return The number of queued tasks which were dropped because the wrapped executor rejected them after their
+     * submitter had returned
+     */
+    long getRejectedCount();
+}
@@ -0,0 +1,72 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link CachingValidator} for {@link AsyncValidator}s. Cached outputs are returned as already completed
+ * futures, so an argument whose value is cached doesn't wait for the wrapped validator at all. Futures which
+ * complete exceptionally are not cached. Like any {@link CachingValidator}, it can't cache validators which depend on
+ * the event, but the event is still passed on to the wrapped validator when a value isn't cached.
+ */
+public class CachingAsyncValidator extends CachingValidator implements AsyncValidator {
+    private final AsyncValidator validator;
+
+    /**
+     * Create a caching async validator
+     *
+     * @param validator   The async validator to cache the outputs of
+     * @param maximumSize The maximum number of values to cache
+     * @param timeToLive  How long each output is cached for
+     * @throws IllegalArgumentException If the validator depends on the event
+     */
+    public CachingAsyncValidator(AsyncValidator validator, int maximumSize, Duration timeToLive) {
+        super(validator, maximumSize, timeToLive);
+        this.validator = validator;
+    }
+
+    @Override
+    public CompletableFuture<? extends ValidatorOutput> isValidAsync(String value) {
+        ValidatorOutput output = getCached(value);
+        if (output != null)
+            return CompletableFuture.completedFuture(output);
+
+        return cache(value, validator.isValidAsync(value));
+    }
+
+    @Override
+    public CompletableFuture<? extends ValidatorOutput> isValidAsync(CommandEvent event, String value) {
+        ValidatorOutput output = getCached(value);
+        if (output != null)
+            return CompletableFuture.completedFuture(output);
+
+        return cache(value, validator.isValidAsync(event, value));
+    }
+
+    /**
+     * Cache the output of a value once the wrapped validator completes
+     *
+     * @param value      The value
+     * @param validation The future of the wrapped validator
+     * @return A future which completes with the same output, after it is cached
+     */
+    private CompletableFuture<? extends ValidatorOutput> cache(String value,
+                                                              CompletableFuture<? extends ValidatorOutput> validation) {
+        return validation.thenApply(result -> {
+            put(value, result);
+            return result;
+        });
+    }
+
+    @Override
+    public ValidatorOutput isValid(String value) {
+        return isValidAsync(value).join();
+    }
+
+    @Override
+    public ValidatorOutput isValid(CommandEvent event, String value) {
+        return isValidAsync(event, value).join();
+    }
+}
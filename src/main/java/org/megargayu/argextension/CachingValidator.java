@@ -0,0 +1,268 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Validator} which remembers the outputs of another validator, for arguments whose values repeat often
+ * and are expensive to validate. The cache holds at most {@code maximumSize} values (once it is full, a least
+ * recently used value is evicted for each new one), and each output expires after {@code timeToLive}.
+ * <p>
+ * The cache is split into stripes with their own locks, so it can be used from many threads at once without
+ * a global lock. Only the size is shared, so values are evicted only when the whole cache is full. Two threads
+ * which miss the same value at the same time will both run the validator.
+ * <p>
+ * If the wrapped validator is a {@link Converter}, its {@link ConverterOutput}s are cached, so the arguments are
+ * still converted. The outputs are cached by value alone, so {@link Validator#isEventDependent() event dependent}
+ * validators (like {@link Converters#member()}) can't be cached. See {@link CachingAsyncValidator} for
+ * {@link AsyncValidator}s.
+ */
+public class CachingValidator implements Validator {
+    /**
+     * A cached output
+     */
+    private static final class Entry {
+        private final ValidatorOutput output;
+        private final long expiresAt;
+
+        private Entry(ValidatorOutput output, long expiresAt) {
+            this.output = output;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Validator validator;
+    private final int maximumSize;
+    private final long timeToLive;
+
+    /**
+     * The stripes of the cache, each one an access ordered map guarded by its own lock
+     */
+    private final LinkedHashMap<String, Entry>[] stripes;
+
+    /**
+     * The number of values in all stripes
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Create a caching validator
+     *
+     * @param validator   The validator to cache the outputs of
+     * @param maximumSize The maximum number of values to cache
+     * @param timeToLive  How long each output is cached for
+     * @throws IllegalArgumentException If the validator depends on the event
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CachingValidator(Validator validator, int maximumSize, Duration timeToLive) {
+        if (validator == null)
+            throw new IllegalArgumentException("Validator cannot be null!");
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive!");
+        if (timeToLive.isNegative() || timeToLive.isZero())
+            throw new IllegalArgumentException("Time to live must be positive!");
+        if (validator.isEventDependent())
+            throw new IllegalArgumentException("Validators which depend on the event cannot be cached!");
+        this.validator = validator;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive.toNanos();
+
+        // Enough stripes to keep contention low, but never more stripes than values
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1,
+                Integer.highestOneBit(maximumSize));
+        this.stripes = new LinkedHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public ValidatorOutput isValid(String value) {
+        ValidatorOutput output = getCached(value);
+        if (output != null)
+            return output;
+
+        // Converters are always asked to convert, so the cached output is the same however it is looked up
+        output = validator instanceof Converter ? ((Converter<?>) validator).convert(value) : validator.isValid(value);
+        put(value, output);
+        return output;
+    }
+
+    @Override
+    public ValidatorOutput isValid(CommandEvent event, String value) {
+        ValidatorOutput output = getCached(value);
+        if (output != null)
+            return output;
+
+        output = validator.isValid(event, value);
+        put(value, output);
+        return output;
+    }
+
+    /**
+     * Get the cached output of a value, counting a hit or a miss
+     *
+     * @param value The value
+     * @return The cached output, or null if the value isn't cached (or expired)
+     */
+    protected ValidatorOutput getCached(String value) {
+        LinkedHashMap<String, Entry> stripe = stripeFor(value);
+        Entry entry;
+        synchronized (stripe) {
+            entry = stripe.get(value);
+            if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+                stripe.remove(value);
+                entry = null;
+                size.decrementAndGet();
+                expirations.increment();
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.output;
+    }
+
+    /**
+     * Cache the output of a value
+     *
+     * @param value  The value
+     * @param output The output of the validator
+     */
+    protected void put(String value, ValidatorOutput output) {
+        if (output == null)
+            return;
+        Entry entry = new Entry(output, System.nanoTime() + timeToLive);
+        int index = stripeIndex(value);
+        boolean added;
+        synchronized (stripes[index]) {
+            added = stripes[index].put(value, entry) == null;
+        }
+        if (added && size.incrementAndGet() > maximumSize)
+            evict(index);
+    }
+
+    /**
+     * Evict the least recently used value of a stripe, starting with the stripe a value was just added to (without
+     * evicting that value) and moving on to the next ones if it has nothing else
+     *
+     * @param index The index of the stripe the value was added to
+     */
+    private void evict(int index) {
+        for (int i = 0; i < stripes.length; i++) {
+            LinkedHashMap<String, Entry> stripe = stripes[(index + i) & (stripes.length - 1)];
+            synchronized (stripe) {
+                if (stripe.size() > (i == 0 ? 1 : 0)) {
+                    Iterator<String> eldest = stripe.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    size.decrementAndGet();
+                    evictions.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    private LinkedHashMap<String, Entry> stripeFor(String value) {
+        return stripes[stripeIndex(value)];
+    }
+
+    private int stripeIndex(String value) {
+        int hash = value.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Remove every cached output
+     */
+    public void invalidateAll() {
+        for (LinkedHashMap<String, Entry> stripe : stripes) {
+            synchronized (stripe) {
+                size.addAndGet(-stripe.size());
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the number of cached values (including expired values which haven't been removed yet)
+     *
+     * @return The number of cached values
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Get the number of times a cached output was used
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of times the validator had to be run
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of values which were removed to make room for other values
+     *
+     * @return The number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of values which were removed because they expired
+     *
+     * @return The number of expirations
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Get the validator whose outputs are cached
+     *
+     * @return The wrapped validator
+     */
+    public Validator getValidator() {
+        return validator;
+    }
+
+    @Override
+    public boolean isEventDependent() {
+        return validator.isEventDependent();
+    }
+
+    @Override
+    public SlashOptionType getSlashOptionType() {
+        return validator.getSlashOptionType();
+    }
+
+    @Override
+    public String[] getSlashChoices() {
+        return validator.getSlashChoices();
+    }
+}
@@ -0,0 +1,113 @@
+package org.megargayu.argextension;
+
+/**
+ * A precomputed, case insensitive lookup table for a fixed set of choices (see {@link Validators#choice(String...)}).
+ * Lookups hash and compare the input in place, so they never allocate.
+ *
+ * @param <T> The type of the value each choice maps to
+ */
+class ChoiceTable<T> {
+    /**
+     * The choices, stored by (case folded) hash with linear probing
+     */
+    private final String[] keys;
+
+    /**
+     * The value of each choice in {@link #keys}
+     */
+    private final Object[] values;
+
+    /**
+     * The choices in the order they were added
+     */
+    private final String[] choices;
+
+    private final int mask;
+
+    /**
+     * The suggestions for invalid choices, built the first time one is needed
+     */
+    private volatile SuggestionIndex suggestions;
+
+    /**
+     * Create a lookup table
+     *
+     * @param choices The choices
+     * @param values  The value each choice maps to
+     */
+    ChoiceTable(String[] choices, T[] values) {
+        if (choices.length != values.length)
+            throw new IllegalArgumentException("Every choice must have a value!");
+        int capacity = Integer.highestOneBit(Math.max(choices.length, 1) * 2 + 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.choices = choices.clone();
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < choices.length; i++) {
+            if (choices[i] == null || choices[i].length() == 0)
+                throw new IllegalArgumentException("Choices cannot be null or empty!");
+            int slot = hash(choices[i]) & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equalsIgnoreCase(choices[i]))
+                    throw new IllegalArgumentException("Duplicate choice `" + choices[i] + "`!");
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = choices[i];
+            this.values[slot] = values[i];
+        }
+    }
+
+    /**
+     * Hash a string ignoring case
+     *
+     * @param value The string to hash
+     * @return The hash
+     */
+    private static int hash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++)
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Look up the value of a choice (ignoring case)
+     *
+     * @param value The string to look up
+     * @return The value the choice maps to, or null if the string isn't a choice
+     */
+    @SuppressWarnings("unchecked")
+    T get(String value) {
+        int slot = hash(value) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == value.length() && key.equalsIgnoreCase(value))
+                return (T) values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Find the choice closest to an invalid one (see {@link SuggestionIndex#suggest(String)})
+     *
+     * @param value The invalid choice
+     * @return The closest choice as it was declared, or null if there is none close enough
+     */
+    String suggest(String value) {
+        SuggestionIndex suggestions = this.suggestions;
+        if (suggestions == null)
+            this.suggestions = suggestions = new SuggestionIndex(choices);
+        return suggestions.suggest(value);
+    }
+
+    /**
+     * Get the choices in the order they were added
+     *
+     * @return A copy of the choices
+     */
+    String[] getChoices() {
+        return choices.clone();
+    }
+}
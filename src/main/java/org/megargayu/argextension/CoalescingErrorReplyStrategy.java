@@ -0,0 +1,152 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import net.dv8tion.jda.api.entities.MessageChannel;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ErrorReplyStrategy} which replies to an error only once per window: when a user gets the same error
+ * message in the same channel again before the window is over, the repeat is dropped (or answered with a reaction,
+ * which doesn't post a message). This keeps someone spamming a broken command from eating into the bot's rate
+ * limits. Share one strategy between all commands, so the same error from different commands is only sent once.
+ * <p>
+ * Recent replies are remembered in a fixed-size table of fingerprints and timestamps which is updated with
+ * compare-and-set, so checking for a repeat never locks or allocates. The table is lossy: when two errors land in
+ * the same slot the older one is forgotten, and its next repeat is sent as if it was new.
+ */
+public class CoalescingErrorReplyStrategy implements ErrorReplyStrategy {
+    /**
+     * Timestamps are stored in ticks of 2^20 nanoseconds (about a millisecond)
+     */
+    private static final int TICK_SHIFT = 20;
+
+    /**
+     * Each slot holds the upper 32 bits of a fingerprint and the tick it was last replied to in the lower 32 bits
+     * (0 is an empty slot)
+     */
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long origin = System.nanoTime();
+    private final int windowTicks;
+    private final boolean reactToRepeats;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Create a strategy which drops repeats silently, and remembers up to 4096 recent replies
+     *
+     * @param window How long to wait before replying with the same error again
+     */
+    public CoalescingErrorReplyStrategy(Duration window) {
+        this(window, false, 4096);
+    }
+
+    /**
+     * Create a strategy which remembers up to 4096 recent replies
+     *
+     * @param window         How long to wait before replying with the same error again
+     * @param reactToRepeats Whether to react to repeats with the client's error emoji (instead of ignoring them)
+     */
+    public CoalescingErrorReplyStrategy(Duration window, boolean reactToRepeats) {
+        this(window, reactToRepeats, 4096);
+    }
+
+    /**
+     * Create a strategy
+     *
+     * @param window         How long to wait before replying with the same error again
+     * @param reactToRepeats Whether to react to repeats with the client's error emoji (instead of ignoring them)
+     * @param capacity       The number of recent replies to remember (rounded up to a power of two)
+     */
+    public CoalescingErrorReplyStrategy(Duration window, boolean reactToRepeats, int capacity) {
+        if (window.isNegative() || window.isZero())
+            throw new IllegalArgumentException("Window must be positive!");
+        if (window.toDays() >= 24)
+            throw new IllegalArgumentException("Window must be less than 24 days!");
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30!");
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.windowTicks = (int) Math.max(1, (window.toNanos() + (1 << TICK_SHIFT) - 1) >>> TICK_SHIFT);
+        this.reactToRepeats = reactToRepeats;
+    }
+
+    @Override
+    public void reply(CommandEvent event, RejectionReason reason, Argument argument, String message) {
+        MessageChannel channel = event.getChannel();
+        long fingerprint = fingerprint(channel != null ? channel.getIdLong() : 0, event.getAuthor().getIdLong(),
+                message);
+        if (isRepeat(fingerprint)) {
+            coalesced.increment();
+            if (reactToRepeats)
+                event.reactError();
+            return;
+        }
+
+        sent.increment();
+        event.reply(message);
+    }
+
+    /**
+     * Check if an error was replied to within the window, remembering the reply if it wasn't
+     *
+     * @param fingerprint The fingerprint of the error
+     * @return Whether the error is a repeat
+     */
+    private boolean isRepeat(long fingerprint) {
+        int slot = (int) fingerprint & mask;
+        int tag = (int) (fingerprint >>> 32);
+        // Tick 0 is reserved for empty slots
+        int now = (int) ((System.nanoTime() - origin) >>> TICK_SHIFT) | 1;
+        long claimed = ((long) tag << 32) | (now & 0xFFFFFFFFL);
+
+        while (true) {
+            long current = slots.get(slot);
+            // Ticks wrap around, but the difference is correct as long as the window is shorter than 2^31 ticks
+            if (current != 0 && (int) (current >>> 32) == tag && now - (int) current < windowTicks)
+                return true;
+            if (slots.compareAndSet(slot, current, claimed))
+                return false;
+        }
+    }
+
+    /**
+     * Mix the channel, user and message of an error into a 64-bit fingerprint
+     */
+    private static long fingerprint(long channelId, long userId, String message) {
+        long hash = channelId;
+        hash = hash * 0x9E3779B97F4A7C15L + userId;
+        hash = hash * 0x9E3779B97F4A7C15L + message.hashCode();
+        hash = hash * 0x9E3779B97F4A7C15L + message.length();
+        // Finalizer of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Get the number of error messages which were sent
+     *
+     * @return The number of replies
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Get the number of error messages which were dropped (or replaced with a reaction) because they were repeats
+     *
+     * @return The number of coalesced replies
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,79 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandClient;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A listener which runs the commands of the current {@link CommandRegistry} snapshot. Every message reads the
+ * snapshot once and looks the command up in its index, so dispatching never takes a lock, and a
+ * {@link ReloadableCommandRegistry} can replace the commands without a moment where a command can't be found.
+ * <p>
+ * The command client is still needed for the help word, the help consumer and the command events, but it should be
+ * built without any commands (otherwise they would run twice):
+ * <pre>{@code
+ * ReloadableCommandRegistry commands = new ReloadableCommandRegistry(registry);
+ * CommandClient client = new CommandClientBuilder()
+ *         .setPrefix(registry.getPrefix())
+ *         .setHelpWord(registry.getHelpWord())
+ *         .setHelpConsumer(new HelpConsumer(commands))
+ *         .build();
+ * DefaultShardManagerBuilder.createDefault(token)
+ *         .addEventListeners(client, new CommandDispatcher(commands, client))
+ *         .build();
+ * }</pre>
+ * Only the prefix of the registry is recognized (not mentions or the alternative prefix of the client).
+ */
+public class CommandDispatcher extends ListenerAdapter {
+    private final Supplier<CommandRegistry> registry;
+    private final CommandClient client;
+
+    /**
+     * Create a dispatcher
+     *
+     * @param registry The registry to get the current snapshot from (like a {@link ReloadableCommandRegistry}, or
+     *                 {@code () -> registry} for a registry that never changes)
+     * @param client   The command client the command events are created with
+     */
+    public CommandDispatcher(Supplier<CommandRegistry> registry, CommandClient client) {
+        if (registry == null || client == null)
+            throw new IllegalArgumentException("Registry and client cannot be null!");
+        this.registry = registry;
+        this.client = client;
+    }
+
+    @Override
+    public void onMessageReceived(MessageReceivedEvent event) {
+        if (event.getAuthor().isBot())
+            return;
+
+        CommandRegistry registry = this.registry.get();
+        String[] parts = parse(registry.getPrefix(), event.getMessage().getContentRaw());
+        if (parts == null)
+            return;
+        Command command = registry.getCommand(parts[0]);
+        if (command != null)
+            command.run(new CommandEvent(event, parts[1], client));
+    }
+
+    /**
+     * Split a message into the name of a command and its arguments, the same way the command client does
+     *
+     * @param prefix  The prefix
+     * @param content The raw content of the message
+     * @return The name and the (possibly empty) arguments, or null if the message doesn't start with the prefix
+     */
+    static String[] parse(String prefix, String content) {
+        if (!content.regionMatches(true, 0, prefix, 0, prefix.length()))
+            return null;
+        String[] parts = Arrays.copyOf(content.substring(prefix.length()).trim().split("\\s+", 2), 2);
+        if (parts[1] == null)
+            parts[1] = "";
+        return parts;
+    }
+}
@@ -0,0 +1,78 @@
+package org.megargayu.argextension;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Built-in executors for running command bodies off the thread which dispatched them (see
+ * {@link ArgumentCommand#executor})
+ */
+public final class CommandExecutors {
+    private CommandExecutors() {
+    }
+
+    /**
+     * The shared executor, created the first time it is used
+     */
+    private static final class VirtualThreads {
+        private static final boolean SUPPORTED;
+        private static final ExecutorService EXECUTOR;
+
+        static {
+            ExecutorService executor;
+            try {
+                // Looked up reflectively so the library still runs on Java versions without virtual threads
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                executor = null;
+            }
+
+            SUPPORTED = executor != null;
+            if (executor == null) {
+                AtomicInteger threadNumber = new AtomicInteger();
+                executor = Executors.newCachedThreadPool(task -> {
+                    Thread thread = new Thread(task, "command-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            EXECUTOR = executor;
+        }
+    }
+
+    /**
+     * An executor which runs every task on a new virtual thread, so command bodies can block (on HTTP calls,
+     * database queries, {@code RestAction.complete()}, ...) without tying up a platform thread. On Java versions
+     * without virtual threads, this falls back to a cached pool of daemon platform threads - use
+     * {@link #virtualThreads(int)} to limit how many are created.
+     *
+     * @return The shared executor
+     */
+    public static Executor virtualThreads() {
+        return VirtualThreads.EXECUTOR;
+    }
+
+    /**
+     * A {@link #virtualThreads()} executor which runs at most {@code maxConcurrency} tasks at once. Each call
+     * creates a new limit.
+     *
+     * @param maxConcurrency The maximum number of tasks to run at once
+     * @return The executor
+     */
+    public static BoundedExecutor virtualThreads(int maxConcurrency) {
+        return new BoundedExecutor(virtualThreads(), maxConcurrency);
+    }
+
+    /**
+     * Get if {@link #virtualThreads()} runs tasks on virtual threads (Java 21 and above) rather than the platform
+     * thread fallback
+     *
+     * @return Whether virtual threads are supported
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.SUPPORTED;
+    }
+}
@@ -0,0 +1,84 @@
+package org.megargayu.argextension;
+
+/**
+ * Instrumentation for an {@link ArgumentCommand} (see {@link ArgumentCommand#metrics}). All times are in
+ * nanoseconds. Implementations are called from every thread that runs the command, so they have to be thread
+ * safe - see {@link CommandMetricsRecorder} for the built-in implementation.
+ */
+public interface CommandMetrics {
+    /**
+     * Metrics which record nothing (the default) - commands don't even read the clock when this is used
+     */
+    CommandMetrics NONE = new CommandMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordTokenize(long nanos) {
+        }
+
+        @Override
+        public void recordValidation(Argument argument, long nanos) {
+        }
+
+        @Override
+        public void recordExecute(long nanos) {
+        }
+
+        @Override
+        public void recordRejection(RejectionReason reason, Argument argument) {
+        }
+    };
+
+    /**
+     * Get if anything is recorded (if false, the command skips timing entirely)
+     *
+     * @return Whether the metrics are enabled
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Record how long splitting the arguments took
+     *
+     * @param nanos The time taken
+     */
+    void recordTokenize(long nanos);
+
+    /**
+     * Record how long an argument's validator took
+     *
+     * @param argument The argument which was validated
+     * @param nanos    The time taken
+     */
+    void recordValidation(Argument argument, long nanos);
+
+    /**
+     * Record how long the command body ({@link ArgumentCommand#execute(com.jagrosh.jdautilities.command.CommandEvent,
+     * ArgumentValues)}) took
+     *
+     * @param nanos The time taken
+     */
+    void recordExecute(long nanos);
+
+    /**
+     * Record how long the command body waited for {@link ArgumentCommand#executor} to run it (only called for
+     * commands with an executor)
+     *
+     * @param nanos The time waited
+     */
+    default void recordQueueWait(long nanos) {
+    }
+
+    /**
+     * Record a rejected invocation
+     *
+     * @param reason   The reason the invocation was rejected
+     * @param argument The argument which was rejected (for {@link RejectionReason#INVALID_ARGUMENT},
+     *                 {@link RejectionReason#ARGUMENT_TOO_LONG} and the attachment reasons, null otherwise)
+     */
+    void recordRejection(RejectionReason reason, Argument argument);
+}
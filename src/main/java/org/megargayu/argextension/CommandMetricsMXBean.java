@@ -0,0 +1,68 @@
+package org.megargayu.argextension;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link CommandMetricsRecorder} - see {@link JmxMetricsExporter}. All times are in nanoseconds.
+ */
+public interface CommandMetricsMXBean {
+    /**
+     * @return The number of times the arguments were split
+     */
+    long getTokenizeCount();
+
+    /**
+     * @return The mean time splitting the arguments took
+     */
+    double getTokenizeMeanNanos();
+
+    /**
+     * @return The 99th percentile of the time splitting the arguments took
+     */
+    long getTokenizeP99Nanos();
+
+    /**
+     * @return The number of times the command body was executed
+     */
+    long getExecuteCount();
+
+    /**
+     * @return The mean time the command body took
+     */
+    double getExecuteMeanNanos();
+
+    /**
+     * @return The median time the command body took
+     */
+    long getExecuteP50Nanos();
+
+    /**
+     * @return The 99th percentile of the time the command body took
+     */
+    long getExecuteP99Nanos();
+
+    /**
+     * @return The longest time the command body took
+     */
+    long getExecuteMaxNanos();
+
+    /**
+     * @return The 99th percentile of the time the command body waited for the command's executor
+     */
+    long getQueueWaitP99Nanos();
+
+    /**
+     * @return The 99th percentile of the time each argument's validator took, by argument name
+     */
+    Map<String, Long> getValidatorP99Nanos();
+
+    /**
+     * @return The number of rejected invocations, by {@link RejectionReason} name
+     */
+    Map<String, Long> getRejections();
+
+    /**
+     * @return The number of times each argument was rejected by its validator, by argument name
+     */
+    Map<String, Long> getInvalidArguments();
+}
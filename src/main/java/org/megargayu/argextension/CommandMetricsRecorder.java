@@ -0,0 +1,167 @@
+package org.megargayu.argextension;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The built-in {@link CommandMetrics}, which records latency histograms ({@link LatencyHistogram}) and rejection
+ * counts with lock-free and striped counters, so it can be shared by all shard threads. Read the metrics with
+ * {@link #snapshot()}, or export them with {@link JmxMetricsExporter}.
+ */
+public class CommandMetricsRecorder implements CommandMetrics {
+    private final LatencyHistogram tokenize = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> validators = new ConcurrentHashMap<>();
+    private final LongAdder[] rejections = new LongAdder[RejectionReason.values().length];
+    private final Map<String, LongAdder> invalidArguments = new ConcurrentHashMap<>();
+
+    /**
+     * Create a metrics recorder
+     */
+    public CommandMetricsRecorder() {
+        for (int i = 0; i < rejections.length; i++)
+            rejections[i] = new LongAdder();
+    }
+
+    @Override
+    public void recordTokenize(long nanos) {
+        tokenize.record(nanos);
+    }
+
+    @Override
+    public void recordValidation(Argument argument, long nanos) {
+        validators.computeIfAbsent(argument.getName(), name -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void recordExecute(long nanos) {
+        execute.record(nanos);
+    }
+
+    @Override
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    @Override
+    public void recordRejection(RejectionReason reason, Argument argument) {
+        rejections[reason.ordinal()].increment();
+        // Only validator failures - limits and attachments also name an argument, but aren't invalid values
+        if (reason == RejectionReason.INVALID_ARGUMENT && argument != null)
+            invalidArguments.computeIfAbsent(argument.getName(), name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Take a snapshot of the metrics
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, LatencyHistogram.Snapshot> validatorSnapshots = new HashMap<>();
+        validators.forEach((name, histogram) -> validatorSnapshots.put(name, histogram.snapshot()));
+
+        Map<RejectionReason, Long> rejectionCounts = new EnumMap<>(RejectionReason.class);
+        for (RejectionReason reason : RejectionReason.values())
+            rejectionCounts.put(reason, rejections[reason.ordinal()].sum());
+
+        Map<String, Long> invalidArgumentCounts = new HashMap<>();
+        invalidArguments.forEach((name, count) -> invalidArgumentCounts.put(name, count.sum()));
+
+        return new Snapshot(tokenize.snapshot(), execute.snapshot(), queueWait.snapshot(), validatorSnapshots,
+                rejectionCounts, invalidArgumentCounts);
+    }
+
+    /**
+     * An immutable snapshot of a {@link CommandMetricsRecorder}
+     */
+    public static class Snapshot {
+        private final LatencyHistogram.Snapshot tokenize;
+        private final LatencyHistogram.Snapshot execute;
+        private final LatencyHistogram.Snapshot queueWait;
+        private final Map<String, LatencyHistogram.Snapshot> validators;
+        private final Map<RejectionReason, Long> rejections;
+        private final Map<String, Long> invalidArguments;
+
+        private Snapshot(LatencyHistogram.Snapshot tokenize, LatencyHistogram.Snapshot execute,
+                         LatencyHistogram.Snapshot queueWait, Map<String, LatencyHistogram.Snapshot> validators,
+                         Map<RejectionReason, Long> rejections, Map<String, Long> invalidArguments) {
+            this.tokenize = tokenize;
+            this.execute = execute;
+            this.queueWait = queueWait;
+            this.validators = Collections.unmodifiableMap(validators);
+            this.rejections = Collections.unmodifiableMap(rejections);
+            this.invalidArguments = Collections.unmodifiableMap(invalidArguments);
+        }
+
+        /**
+         * Get the latencies of splitting the arguments
+         *
+         * @return The tokenize latencies
+         */
+        public LatencyHistogram.Snapshot getTokenize() {
+            return tokenize;
+        }
+
+        /**
+         * Get the latencies of the command body
+         *
+         * @return The execute latencies
+         */
+        public LatencyHistogram.Snapshot getExecute() {
+            return execute;
+        }
+
+        /**
+         * Get the time command bodies waited for the command's executor
+         *
+         * @return The queue wait latencies
+         */
+        public LatencyHistogram.Snapshot getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * Get the latencies of each argument's validator
+         *
+         * @return The validator latencies by argument name
+         */
+        public Map<String, LatencyHistogram.Snapshot> getValidators() {
+            return validators;
+        }
+
+        /**
+         * Get the number of rejected invocations for each reason
+         *
+         * @return The rejection counts
+         */
+        public Map<RejectionReason, Long> getRejections() {
+            return rejections;
+        }
+
+        /**
+         * Get the number of times each argument was rejected by its validator
+         *
+         * @return The invalid argument counts by argument name
+         */
+        public Map<String, Long> getInvalidArguments() {
+            return invalidArguments;
+        }
+
+        /**
+         * Get the total number of rejected invocations
+         *
+         * @return The number of rejections
+         */
+        public long getRejectionCount() {
+            long total = 0;
+            for (long count : rejections.values())
+                total += count;
+            return total;
+        }
+    }
+}
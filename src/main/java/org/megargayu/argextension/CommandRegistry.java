@@ -0,0 +1,256 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of a set of commands and everything precomputed from them: the compiled
+ * {@link ArgumentSchema}s and subcommands of the {@link ArgumentCommand}s, their usage strings, the help embeds of
+ * the {@link HelpConsumer}, and the indexes to look commands up by name and suggest them.
+ * <p>
+ * Nothing in a registry depends on a shard or a user (the author and footer of the help embeds are added when they
+ * are sent), so when sharding through a {@code ShardManager}, build one registry and share it - together with one
+ * command client - between all the shards. The commands are compiled once no matter how many shards there are:
+ * <pre>{@code
+ * CommandRegistry registry = new CommandRegistry("!", "help", color, commands);
+ * CommandClient client = new CommandClientBuilder()
+ *         .setPrefix("!")
+ *         .setHelpConsumer(new HelpConsumer(registry))
+ *         .addCommands(registry.getCommands())
+ *         .build();
+ * DefaultShardManagerBuilder.createDefault(token).addEventListeners(client).build();
+ * }</pre>
+ */
+public final class CommandRegistry {
+    private final String prefix;
+    private final String helpWord;
+    private final Color embedColor;
+
+    /**
+     * The commands, in the order they were registered
+     */
+    private final Command[] commands;
+
+    /**
+     * The commands by lower-cased name and alias (if a name is used twice, the command registered first wins)
+     */
+    private final Map<String, Command> byName;
+
+    /**
+     * The help of every command by name and alias, and of every subcommand by its qualified name
+     */
+    private final Map<String, MessageEmbed> details;
+
+    /**
+     * The names of the commands and subcommands anyone can see, for "did you mean" suggestions
+     */
+    private final SuggestionIndex suggestions;
+
+    /**
+     * The pages of the command list for everyone else, and for owners (which includes owner commands)
+     */
+    private final MessageEmbed[] publicPages, ownerPages;
+
+    /**
+     * Build a registry
+     *
+     * @param prefix     The prefix of the command client
+     * @param helpWord   The help word of the command client
+     * @param embedColor The color of the help embeds
+     * @param commands   The commands
+     */
+    public CommandRegistry(String prefix, String helpWord, Color embedColor, Collection<? extends Command> commands) {
+        this(prefix, helpWord, embedColor, commands.toArray(new Command[0]));
+    }
+
+    /**
+     * Build a registry
+     *
+     * @param prefix     The prefix of the command client
+     * @param helpWord   The help word of the command client
+     * @param embedColor The color of the help embeds
+     * @param commands   The commands
+     */
+    public CommandRegistry(String prefix, String helpWord, Color embedColor, Command... commands) {
+        if (prefix == null || helpWord == null)
+            throw new IllegalArgumentException("Prefix and help word cannot be null!");
+        this.prefix = prefix;
+        this.helpWord = helpWord;
+        this.embedColor = embedColor;
+        this.commands = commands.clone();
+
+        Map<String, Command> byName = new HashMap<>(this.commands.length * 4);
+        Map<String, MessageEmbed> details = new HashMap<>(this.commands.length * 4);
+        List<String> names = new ArrayList<>(this.commands.length * 2);
+        for (Command command : this.commands) {
+            if (command == null)
+                throw new IllegalArgumentException("Commands cannot be null!");
+
+            // Hidden and owner commands are never suggested
+            if (!command.isHidden() && !command.isOwnerCommand())
+                addNames(command, names);
+
+            // Building the help compiles the schema, subcommands and usage string of argument commands
+            MessageEmbed embed = HelpConsumer.buildDetails(embedColor, prefix, command);
+            byName.putIfAbsent(command.getName().toLowerCase(Locale.ROOT), command);
+            details.putIfAbsent(command.getName(), embed);
+            for (String alias : command.getAliases()) {
+                byName.putIfAbsent(alias.toLowerCase(Locale.ROOT), command);
+                details.putIfAbsent(alias, embed);
+            }
+            if (command instanceof ArgumentCommand)
+                putSubcommandDetails((ArgumentCommand) command, details);
+        }
+
+        this.byName = byName;
+        this.details = details;
+        this.suggestions = names.isEmpty() ? SuggestionIndex.EMPTY : new SuggestionIndex(names);
+        this.publicPages = HelpConsumer.buildPages(embedColor, prefix, helpWord, this.commands, false);
+        this.ownerPages = HelpConsumer.buildPages(embedColor, prefix, helpWord, this.commands, true);
+    }
+
+    /**
+     * Add the names and aliases of a command, and the qualified names of its visible subcommands
+     *
+     * @param command The command
+     * @param names   The list to add the names to
+     */
+    private static void addNames(Command command, List<String> names) {
+        names.add(command instanceof ArgumentCommand ? ((ArgumentCommand) command).getQualifiedName() :
+                command.getName());
+        Collections.addAll(names, command.getAliases());
+        if (command instanceof ArgumentCommand)
+            addSubcommandNames((ArgumentCommand) command, names);
+    }
+
+    private static void addSubcommandNames(ArgumentCommand command, List<String> names) {
+        for (ArgumentCommand subcommand : command.getSubcommandNode().getSubcommands()) {
+            if (!subcommand.isHidden()) {
+                names.add(subcommand.getQualifiedName());
+                addSubcommandNames(subcommand, names);
+            }
+        }
+    }
+
+    /**
+     * Add the help of every subcommand of a command (and their subcommands) by its qualified name
+     *
+     * @param command The command
+     * @param details The help by name
+     */
+    private void putSubcommandDetails(ArgumentCommand command, Map<String, MessageEmbed> details) {
+        for (ArgumentCommand subcommand : command.getSubcommandNode().getSubcommands()) {
+            details.putIfAbsent(subcommand.getQualifiedName(),
+                    HelpConsumer.buildDetails(embedColor, prefix, subcommand));
+            putSubcommandDetails(subcommand, details);
+        }
+    }
+
+    /**
+     * Check if this registry may have been built from the commands of a command client, without looking at the
+     * commands themselves
+     *
+     * @param prefix       The prefix of the command client
+     * @param helpWord     The help word of the command client
+     * @param commandCount The number of commands of the command client
+     * @return Whether the prefix, help word and number of commands are equal
+     */
+    boolean isCompiledFrom(String prefix, String helpWord, int commandCount) {
+        return commands.length == commandCount && this.prefix.equals(prefix) && this.helpWord.equals(helpWord);
+    }
+
+    /**
+     * Get the prefix of the command client
+     *
+     * @return The prefix
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Get the help word of the command client
+     *
+     * @return The help word
+     */
+    public String getHelpWord() {
+        return helpWord;
+    }
+
+    /**
+     * Get the color of the help embeds
+     *
+     * @return The color
+     */
+    public Color getEmbedColor() {
+        return embedColor;
+    }
+
+    /**
+     * Get the commands
+     *
+     * @return An array of all commands, in the order they were registered
+     */
+    public Command[] getCommands() {
+        return commands.clone();
+    }
+
+    /**
+     * Find a command by name or alias (ignoring case)
+     *
+     * @param name The name or alias
+     * @return The command, or null if there is none with that name
+     */
+    public Command getCommand(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the help of a command
+     *
+     * @param name The name or alias of a command, or the qualified name of a subcommand (like {@code config set})
+     * @return The help embed (without an author, footer or timestamp), or null if there is no such command
+     */
+    public MessageEmbed getDetails(String name) {
+        return details.get(name);
+    }
+
+    /**
+     * Get the pages of the command list
+     *
+     * @param owner Whether to include owner commands
+     * @return The pages (without an author, footer or timestamp)
+     */
+    MessageEmbed[] getPages(boolean owner) {
+        return owner ? ownerPages : publicPages;
+    }
+
+    /**
+     * Get the number of pages of the command list
+     *
+     * @param owner Whether to include owner commands
+     * @return The number of pages
+     */
+    public int getPageCount(boolean owner) {
+        return getPages(owner).length;
+    }
+
+    /**
+     * Find the name of the visible command or subcommand closest to a misspelled one
+     *
+     * @param name The misspelled name
+     * @return The closest name, or null if there is none close enough (see {@link SuggestionIndex#suggest(String)})
+     */
+    public String suggest(String name) {
+        return suggestions.suggest(name);
+    }
+}
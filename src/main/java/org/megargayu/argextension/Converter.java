@@ -0,0 +1,44 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+/**
+ * A {@link Validator} for an {@link Argument} which also converts the value, so it only has to be parsed once.
+ * The converted value is passed to {@link ArgumentCommand#execute(CommandEvent, ArgumentValues)}.
+ * <p>
+ * See {@link Converters} for built-in converters.
+ *
+ * @param <T> The type of the converted value
+ */
+@FunctionalInterface
+public interface Converter<T> extends Validator {
+    /**
+     * Check if value is valid, and convert it
+     *
+     * @param value The value to convert
+     * @return If the output is valid, the error string (null if none provided) and the converted value
+     */
+    ConverterOutput<T> convert(String value);
+
+    /**
+     * Check if value is valid, and convert it. Override this if the conversion needs the event (for example to
+     * look up a member of the guild)
+     *
+     * @param event The {@link CommandEvent} that triggered the command
+     * @param value The value to convert
+     * @return If the output is valid, the error string (null if none provided) and the converted value
+     */
+    default ConverterOutput<T> convert(CommandEvent event, String value) {
+        return convert(value);
+    }
+
+    @Override
+    default ValidatorOutput isValid(String value) {
+        return convert(value);
+    }
+
+    @Override
+    default ValidatorOutput isValid(CommandEvent event, String value) {
+        return convert(event, value);
+    }
+}
@@ -0,0 +1,163 @@
+package org.megargayu.argextension;
+
+/**
+ * The output of {@link Converter#convert(String)} - a {@link ValidatorOutput} which also holds the converted
+ * value. Primitive values are stored without boxing, so they can be read with {@link #getInt()},
+ * {@link #getLong()}, {@link #getDouble()} and {@link #getBoolean()}.
+ *
+ * @param <T> The type of the converted value
+ */
+public class ConverterOutput<T> extends ValidatorOutput {
+    /**
+     * The kind of value held by an output
+     */
+    private enum Kind {
+        NONE, OBJECT, INT, LONG, DOUBLE, BOOLEAN
+    }
+
+    private final Kind kind;
+    private final T value;
+
+    /**
+     * The primitive value (doubles are stored as their raw long bits)
+     */
+    private final long primitive;
+
+    private ConverterOutput(boolean isValid, String errorMessage, Kind kind, T value, long primitive) {
+        super(isValid, errorMessage);
+        this.kind = kind;
+        this.value = value;
+        this.primitive = primitive;
+    }
+
+    /**
+     * Create a valid output holding an object
+     *
+     * @param value The converted value
+     * @param <T>   The type of the converted value
+     * @return The output
+     */
+    public static <T> ConverterOutput<T> of(T value) {
+        return new ConverterOutput<>(true, null, Kind.OBJECT, value, 0);
+    }
+
+    /**
+     * Create a valid output holding an int
+     *
+     * @param value The converted value
+     * @return The output
+     */
+    public static ConverterOutput<Integer> ofInt(int value) {
+        return new ConverterOutput<>(true, null, Kind.INT, null, value);
+    }
+
+    /**
+     * Create a valid output holding a long
+     *
+     * @param value The converted value
+     * @return The output
+     */
+    public static ConverterOutput<Long> ofLong(long value) {
+        return new ConverterOutput<>(true, null, Kind.LONG, null, value);
+    }
+
+    /**
+     * Create a valid output holding a double
+     *
+     * @param value The converted value
+     * @return The output
+     */
+    public static ConverterOutput<Double> ofDouble(double value) {
+        return new ConverterOutput<>(true, null, Kind.DOUBLE, null, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Create a valid output holding a boolean
+     *
+     * @param value The converted value
+     * @return The output
+     */
+    public static ConverterOutput<Boolean> ofBoolean(boolean value) {
+        return new ConverterOutput<>(true, null, Kind.BOOLEAN, null, value ? 1 : 0);
+    }
+
+    /**
+     * Create an invalid output
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @param <T>          The type of the value that couldn't be converted
+     * @return The output
+     */
+    public static <T> ConverterOutput<T> invalid(String errorMessage) {
+        return new ConverterOutput<>(false, errorMessage, Kind.NONE, null, 0);
+    }
+
+    /**
+     * Get the converted value (primitive values are boxed)
+     *
+     * @return The converted value
+     */
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        switch (kind) {
+            case INT:
+                return (T) Integer.valueOf((int) primitive);
+            case LONG:
+                return (T) Long.valueOf(primitive);
+            case DOUBLE:
+                return (T) Double.valueOf(Double.longBitsToDouble(primitive));
+            case BOOLEAN:
+                return (T) Boolean.valueOf(primitive != 0);
+            case OBJECT:
+                return value;
+            default:
+                throw new IllegalStateException("An invalid output has no value!");
+        }
+    }
+
+    /**
+     * Get the converted value as an int
+     *
+     * @return The converted value
+     */
+    public int getInt() {
+        if (kind != Kind.INT)
+            throw new IllegalStateException("Value is not an int!");
+        return (int) primitive;
+    }
+
+    /**
+     * Get the converted value as a long (ints are widened)
+     *
+     * @return The converted value
+     */
+    public long getLong() {
+        if (kind != Kind.INT && kind != Kind.LONG)
+            throw new IllegalStateException("Value is not a long!");
+        return primitive;
+    }
+
+    /**
+     * Get the converted value as a double (ints and longs are widened)
+     *
+     * @return The converted value
+     */
+    public double getDouble() {
+        if (kind == Kind.DOUBLE)
+            return Double.longBitsToDouble(primitive);
+        if (kind != Kind.INT && kind != Kind.LONG)
+            throw new IllegalStateException("Value is not a double!");
+        return primitive;
+    }
+
+    /**
+     * Get the converted value as a boolean
+     *
+     * @return The converted value
+     */
+    public boolean getBoolean() {
+        if (kind != Kind.BOOLEAN)
+            throw new IllegalStateException("Value is not a boolean!");
+        return primitive != 0;
+    }
+}
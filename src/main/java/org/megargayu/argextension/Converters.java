@@ -0,0 +1,143 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import net.dv8tion.jda.api.entities.Member;
+
+/**
+ * Built-in {@link Converter}s for values without any constraints (see {@link Validators} for converters with
+ * ranges and other constraints)
+ */
+public final class Converters {
+    private Converters() {
+    }
+
+    /**
+     * A converter for ints
+     *
+     * @return The converter
+     */
+    public static Converter<Integer> integer() {
+        return integer("Invalid integer provided!");
+    }
+
+    /**
+     * A converter for ints
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Integer> integer(String errorMessage) {
+        return Validators.intRange(Integer.MIN_VALUE, Integer.MAX_VALUE, errorMessage);
+    }
+
+    /**
+     * A converter for longs
+     *
+     * @return The converter
+     */
+    public static Converter<Long> longInteger() {
+        return longInteger("Invalid integer provided!");
+    }
+
+    /**
+     * A converter for longs
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Long> longInteger(String errorMessage) {
+        return Validators.longRange(Long.MIN_VALUE, Long.MAX_VALUE, errorMessage);
+    }
+
+    /**
+     * A converter for doubles
+     *
+     * @return The converter
+     */
+    public static Converter<Double> decimal() {
+        return decimal("Invalid number provided!");
+    }
+
+    /**
+     * A converter for doubles
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Double> decimal(String errorMessage) {
+        return Validators.decimalRange(-Double.MAX_VALUE, Double.MAX_VALUE, errorMessage);
+    }
+
+    /**
+     * A converter for the constants of an enum (case insensitive)
+     *
+     * @param type The class of the enum
+     * @param <E>  The type of the enum
+     * @return The converter
+     */
+    public static <E extends Enum<E>> Converter<E> enumeration(Class<E> type) {
+        return Validators.choice(type);
+    }
+
+    /**
+     * A converter for Discord IDs (snowflakes), stored as longs
+     *
+     * @return The converter
+     */
+    public static Converter<Long> snowflake() {
+        return snowflake("Invalid ID provided!");
+    }
+
+    /**
+     * A converter for Discord IDs (snowflakes), stored as longs
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Long> snowflake(String errorMessage) {
+        return Validators.snowflake(errorMessage);
+    }
+
+    /**
+     * A converter for members of the guild the command was run in, either as a mention or an ID. Only cached
+     * members are found.
+     *
+     * @return The converter
+     */
+    public static Converter<Member> member() {
+        return member("Member not found!");
+    }
+
+    /**
+     * A converter for members of the guild the command was run in, either as a mention or an ID. Only cached
+     * members are found.
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Member> member(String errorMessage) {
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<Member> convert(String value) {
+                return ConverterOutput.invalid(errorMessage);
+            }
+
+            @Override
+            public ConverterOutput<Member> convert(CommandEvent event, String value) {
+                long id = Validators.parseMention(value, "<@", "<@!");
+                Member member = id >= 0 && event.getGuild() != null ? event.getGuild().getMemberById(id) : null;
+                return member != null ? ConverterOutput.of(member) : ConverterOutput.invalid(errorMessage);
+            }
+
+            @Override
+            public boolean isEventDependent() {
+                return true;
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return SlashOptionType.USER;
+            }
+        };
+    }
+}
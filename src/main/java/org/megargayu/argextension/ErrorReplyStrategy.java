@@ -0,0 +1,27 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+/**
+ * How an {@link ArgumentCommand} replies to a rejected invocation (see {@link ArgumentCommand#errorReplyStrategy}).
+ * Implementations are called from every thread that runs the command, so they have to be thread safe - see
+ * {@link CoalescingErrorReplyStrategy} for a strategy which doesn't repeat itself.
+ */
+@FunctionalInterface
+public interface ErrorReplyStrategy {
+    /**
+     * Reply with every error message as soon as it happens (the default)
+     */
+    ErrorReplyStrategy IMMEDIATE = (event, reason, argument, message) -> event.reply(message);
+
+    /**
+     * Reply to a rejected invocation
+     *
+     * @param event    The {@link CommandEvent} that triggered the command
+     * @param reason   The reason the invocation was rejected
+     * @param argument The argument which was rejected (for {@link RejectionReason#INVALID_ARGUMENT},
+     *                 {@link RejectionReason#ARGUMENT_TOO_LONG} and the attachment reasons, null otherwise)
+     * @param message  The error message
+     */
+    void reply(CommandEvent event, RejectionReason reason, Argument argument, String message);
+}
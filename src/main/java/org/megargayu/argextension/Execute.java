@@ -0,0 +1,26 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the body of an {@link ArgumentCommand} whose arguments are declared with {@link Arg} parameters. The first
+ * parameter must be the {@link CommandEvent}, and the method can't be private or static:
+ * <pre>
+ * &#64;Execute
+ * void add(CommandEvent event, &#64;Arg("a") int a, &#64;Arg("b") int b) {
+ *     event.reply(String.valueOf(a + b));
+ * }
+ * </pre>
+ * The annotation processor generates a {@link ArgumentBinder} called {@code <Command>_Binder} next to the command,
+ * which is passed to {@link ArgumentCommand#bind(ArgumentBinder)} in the command's constructor. A command can only
+ * have one {@code Execute} method.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Execute {
+}
@@ -1,17 +1,53 @@
 package org.megargayu.argextension;
 
 import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandClient;
 import com.jagrosh.jdautilities.command.CommandEvent;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 
 import java.awt.*;
-import java.util.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class HelpConsumer implements Consumer<CommandEvent> {
+    /**
+     * The maximum number of fields Discord allows in an embed
+     */
+    private static final int MAX_FIELDS = 25;
+
+    /**
+     * The maximum number of characters Discord allows in an embed
+     */
+    private static final int MAX_CHARACTERS = MessageEmbed.EMBED_MAX_LENGTH_BOT;
+
+    /**
+     * The maximum length of a Discord username - the name of the bot is added to every page as the author and
+     * footer when it is sent
+     */
+    private static final int MAX_NAME_LENGTH = 32;
+
+    private static final String DESCRIPTION = """
+            A list of commands and functionalities of this bot.
+
+            **Format:** `<command> (<aliases>)` `{<required argument>}` `[<optional argument>]`""";
+
     private final Color embedColor;
 
+    /**
+     * Where the registry given to the constructor is read from, or null if the registry follows the commands of the
+     * client
+     */
+    private final Supplier<CommandRegistry> registrySource;
+
+    /**
+     * The registry built from the commands of the client, rebuilt when the number of commands changes
+     */
+    private volatile CommandRegistry registry;
+
     /**
      * A better help consumer (that uses embeds), which works for both {@link ArgumentCommand}s and
      * {@link Command}s. If you don't want to use {@link ArgumentCommand}s and just use this
@@ -32,131 +68,334 @@ public class HelpConsumer implements Consumer<CommandEvent> {
      */
     public HelpConsumer(Color embedColor) {
         this.embedColor = embedColor;
+        this.registrySource = null;
+    }
+
+    /**
+     * A help consumer that uses the precomputed help of a {@link CommandRegistry} (which should be built from the
+     * same commands, prefix and help word as the command client), so it can be shared between shards without
+     * building anything
+     *
+     * @param registry The registry
+     */
+    public HelpConsumer(CommandRegistry registry) {
+        if (registry == null)
+            throw new IllegalArgumentException("Registry cannot be null!");
+        this.embedColor = registry.getEmbedColor();
+        this.registrySource = () -> registry;
+    }
+
+    /**
+     * A help consumer that uses the current snapshot of a {@link ReloadableCommandRegistry}, so the help changes
+     * as soon as the new snapshot of a change is published
+     *
+     * @param registry The registry
+     */
+    public HelpConsumer(ReloadableCommandRegistry registry) {
+        if (registry == null)
+            throw new IllegalArgumentException("Registry cannot be null!");
+        this.embedColor = registry.get().getEmbedColor();
+        this.registrySource = registry;
+    }
+
+    /**
+     * Forget the cached command list and help, so they are rebuilt the next time they are requested. They are rebuilt
+     * automatically when a command is added or removed (the cache is checked against the number of commands, not the
+     * commands themselves, so a help request costs the same however many commands there are), so this is only needed
+     * when a command is replaced by another one or changes itself (for example its help or arguments). This does
+     * nothing if the help consumer was created with a {@link CommandRegistry} or {@link ReloadableCommandRegistry}.
+     */
+    public void invalidate() {
+        registry = null;
     }
 
     @Override
     public void accept(CommandEvent event) {
+        CommandRegistry registry = getRegistry(event);
         if (event.getArgs().equals("")) {
+            replyPage(event, registry, 1);
+            return;
+        }
+
+        // Subcommands are looked up by their whole path, like "config set"
+        String commandStr = event.getArgs();
+        MessageEmbed details = registry.getDetails(commandStr);
+        if (details != null) {
+            event.reply(withSelf(event, details));
+            return;
+        }
+
+        if (commandStr.contains(" ")) {
+            event.reply("Invalid usage of '" + event.getClient().getHelpWord() + "'!");
+            return;
+        }
+
+        long page = Validators.parseInt(commandStr, 0, commandStr.length());
+        if (page != Validators.NOT_AN_INT) {
+            replyPage(event, registry, (int) page);
+            return;
+        }
+
+        // Only look for a close match once the lookup has failed
+        String suggestion = registry.suggest(commandStr);
+        event.reply("Command '" + commandStr + "' not found!" +
+                (suggestion != null ? " Did you mean `" + suggestion + "`?" : ""));
+    }
+
+    /**
+     * Get the registry of the commands, building it if the number of commands of the client changed since it was
+     * cached
+     *
+     * @param event The event
+     * @return The registry
+     */
+    private CommandRegistry getRegistry(CommandEvent event) {
+        if (registrySource != null)
+            return registrySource.get();
+
+        CommandClient client = event.getClient();
+        List<Command> commands = client.getCommands();
+        CommandRegistry registry = this.registry;
+        if (registry != null &&
+                registry.isCompiledFrom(client.getTextualPrefix(), client.getHelpWord(), commands.size()))
+            return registry;
+
+        registry = new CommandRegistry(client.getTextualPrefix(), client.getHelpWord(), embedColor, commands);
+        this.registry = registry;
+        return registry;
+    }
+
+    /**
+     * Add the author, footer and timestamp to a precomputed embed
+     *
+     * @param event The event
+     * @param embed The embed
+     * @return The embed to send
+     */
+    private static MessageEmbed withSelf(CommandEvent event, MessageEmbed embed) {
+        String selfName = event.getSelfUser().getName();
+        String selfAvatarUrl = event.getSelfUser().getAvatarUrl();
+        return new EmbedBuilder(embed)
+                .setAuthor(selfName, selfAvatarUrl)
+                .setFooter(selfName, selfAvatarUrl)
+                .setTimestamp(Instant.now())
+                .build();
+    }
+
+    /**
+     * Build the help of a command
+     *
+     * @param embedColor The color of the embed
+     * @param prefix     The prefix of the client
+     * @param cmd        The command
+     * @return The help embed (without an author, footer or timestamp)
+     */
+    static MessageEmbed buildDetails(Color embedColor, String prefix, Command cmd) {
+        String name = cmd instanceof ArgumentCommand ? ((ArgumentCommand) cmd).getQualifiedName() : cmd.getName();
+        StringBuilder description = new StringBuilder(cmd.getHelp());
+        if (cmd.getAliases().length > 0) {
+            description.append("\n**Aliases:** `");
+            for (int i = 0; i < cmd.getAliases().length; i++)
+                description.append(cmd.getAliases()[i]).
+                        append((i < cmd.getAliases().length - 1) ? " " : "");
+            description.append("`");
+        }
+        description.append("\n**Usage:** `")
+                .append(prefix)
+                .append(name)
+                .append("`")
+                .append((cmd.getArguments() == null) ? "" : " `" + cmd.getArguments() + "`");
+        description.append("\n**Cooldown:** ")
+                .append(cmd.getCooldown()).append(" second(s)");
+
+        EmbedBuilder embedBuilder = new EmbedBuilder()
+                .setColor(embedColor)
+                .setTitle(name)
+                .setDescription(description.toString());
+
+        // Remove these if statements if you don't want to use ArgumentCommands
+        if (cmd instanceof ArgumentCommand) {
+            ArgumentCommand argumentCmd = (ArgumentCommand) cmd;
+            if (argumentCmd.getRequiredArguments().length > 0)
+                embedBuilder.addField(argumentsField("Required Arguments", argumentCmd.getRequiredArguments()));
+            if (argumentCmd.getOptionalArguments().length > 0)
+                embedBuilder.addField(argumentsField("Optional Arguments", argumentCmd.getOptionalArguments()));
+            if (argumentCmd.getOptions().length > 0)
+                embedBuilder.addField(argumentsField("Options", argumentCmd.getOptions()));
+            if (!argumentCmd.getSubcommandNode().isEmpty())
+                embedBuilder.addField(subcommandsField(prefix, argumentCmd));
+        }
+
+        return embedBuilder.build();
+    }
+
+    /**
+     * Create the field listing some arguments of a command
+     *
+     * @param title     The title of the field
+     * @param arguments The arguments
+     * @return The field
+     */
+    private static MessageEmbed.Field argumentsField(String title, Argument[] arguments) {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < arguments.length; i++) {
+            Argument arg = arguments[i];
+            if (arg.isFlag())
+                value.append("**`--").append(arg.getName()).append("`** (flag)");
+            else if (arg.isOption())
+                value.append("**`--").append(arg.getName()).append("`** ")
+                        .append((arg.getType() != null) ? "type: `" + arg.getType() + "`" : "(no type specified)")
+                        .append((arg.getDefaultValue() != null) ? ", default: `" + arg.getDefaultValue() + "`" : "");
+            else if (arg.isAttachment())
+                value.append("**`").append(arg.getName().toUpperCase()).append("`** (attachment, at most `")
+                        .append(AttachmentValue.formatSize(arg.getMaxSize())).append("`)");
+            else
+                value.append("**`").append(arg.getName().toUpperCase()).append("`** ")
+                        .append((arg.getType() != null) ? "type: `" + arg.getType() + "`" : "(no type specified)");
+            value.append("\n")
+                    .append((arg.getDescription() != null && arg.getDescription().length() > 0) ?
+                            arg.getDescription() : "No description found!")
+                    .append((i < arguments.length - 1) ? "\n\n" : "");
+        }
+        return new MessageEmbed.Field(title, value.toString(), false);
+    }
+
+    /**
+     * Create the field listing the tree of subcommands of a command, one subcommand per line (cut off at the
+     * length Discord allows)
+     *
+     * @param prefix  The prefix of the client
+     * @param command The command
+     * @return The field
+     */
+    private static MessageEmbed.Field subcommandsField(String prefix, ArgumentCommand command) {
+        StringBuilder value = new StringBuilder();
+        appendSubcommands(prefix, command, value);
+        if (value.length() > MessageEmbed.VALUE_MAX_LENGTH) {
+            value.setLength(value.lastIndexOf("\n", MessageEmbed.VALUE_MAX_LENGTH - 4) + 1);
+            value.append("...");
+        }
+        return new MessageEmbed.Field("Subcommands", value.toString().trim(), false);
+    }
+
+    private static void appendSubcommands(String prefix, ArgumentCommand command, StringBuilder value) {
+        for (ArgumentCommand subcommand : command.getSubcommandNode().getSubcommands()) {
+            if (value.length() > MessageEmbed.VALUE_MAX_LENGTH)
+                return;
+            String arguments = subcommand.getArguments();
+            value.append("`").append(prefix).append(subcommand.getQualifiedName())
+                    .append(arguments == null || arguments.isEmpty() ? "" : " " + arguments).append("`")
+                    .append(subcommand.getHelp() == null || subcommand.getHelp().isEmpty() ? "" :
+                            " - " + subcommand.getHelp())
+                    .append("\n");
+            appendSubcommands(prefix, subcommand, value);
+        }
+    }
+
+    /**
+     * Reply with a page of the command list
+     *
+     * @param event    The event
+     * @param registry The registry of the commands
+     * @param page     The page (starting at 1)
+     */
+    private static void replyPage(CommandEvent event, CommandRegistry registry, int page) {
+        MessageEmbed[] pages = registry.getPages(event.isOwner());
+        if (page < 1 || page > pages.length) {
+            event.reply("Page " + page + " doesn't exist! There " + (pages.length == 1 ? "is 1 page." :
+                    "are " + pages.length + " pages."));
+            return;
+        }
+
+        event.reply(withSelf(event, pages[page - 1]));
+    }
+
+    /**
+     * Build the pages of the command list. Each page is kept within Discord's limits on the number of fields and
+     * characters of an embed.
+     *
+     * @param embedColor The color of the embeds
+     * @param prefix     The prefix of the client
+     * @param helpWord   The help word of the client
+     * @param commands   The commands of the client
+     * @param owner      Whether to include owner commands
+     * @return The pages (without an author, footer or timestamp)
+     */
+    static MessageEmbed[] buildPages(Color embedColor, String prefix, String helpWord, Command[] commands,
+                                     boolean owner) {
+        String helpCommand = prefix + helpWord;
+
+        MessageEmbed.Field helpField = new MessageEmbed.Field("`" + helpCommand + " [COMMAND]`",
+                "Displays help for this command", false);
+        String pageHint = "\n\n**Page %d/%d:** use `" + helpCommand + " <PAGE>` to see another page";
+
+        // Everything on a page but the commands, with room for the page numbers
+        int overhead = "Help".length() + DESCRIPTION.length() + String.format(pageHint, Integer.MAX_VALUE,
+                Integer.MAX_VALUE).length() + 2 * MAX_NAME_LENGTH + length(helpField);
+
+        List<List<MessageEmbed.Field>> pages = new ArrayList<>();
+        List<MessageEmbed.Field> page = new ArrayList<>();
+        int characters = overhead;
+        for (Command command : commands) {
+            if (command.isHidden() || (command.isOwnerCommand() && !owner))
+                continue;
+
+            MessageEmbed.Field field = commandField(prefix, command);
+            if (!page.isEmpty() && (page.size() == MAX_FIELDS - 1 || characters + length(field) > MAX_CHARACTERS)) {
+                pages.add(page);
+                page = new ArrayList<>();
+                characters = overhead;
+            }
+            page.add(field);
+            characters += length(field);
+        }
+        pages.add(page);
+
+        MessageEmbed[] embeds = new MessageEmbed[pages.size()];
+        for (int i = 0; i < embeds.length; i++) {
             EmbedBuilder embedBuilder = new EmbedBuilder()
                     .setColor(embedColor)
                     .setTitle("Help")
-                    .setDescription("""
-                            A list of commands and functionalities of this bot.
-
-                            **Format:** `<command> (<aliases>)` `{<required argument>}` `[<optional argument>]`""")
-                    .addField(new MessageEmbed.Field(
-                            "`" + event.getClient().getTextualPrefix() +
-                                    event.getClient().getHelpWord() + " [COMMAND]`",
-                            "Displays help for this command", false))
-                    .setAuthor(event.getSelfUser().getName(), event.getSelfUser().getAvatarUrl())
-                    .setFooter(event.getSelfUser().getName(), event.getSelfUser().getAvatarUrl())
-                    .setTimestamp(new Date().toInstant());
-
-            for (Command command : event.getClient().getCommands()) {
-                if (!command.isHidden() && (!command.isOwnerCommand() || event.isOwner())) {
-                    StringBuilder aliases = new StringBuilder();
-                    for (int i = 0; i < command.getAliases().length; i++)
-                        aliases.append(event.getClient().getTextualPrefix())
-                                .append(command.getAliases()[i])
-                                .append((i < command.getAliases().length - 1) ? ", " : "");
-
-                    embedBuilder.addField(new MessageEmbed.Field(
-                            String.format("`%s%s%s%s`%s",
-                                    event.getClient().getTextualPrefix(),
-                                    command.getName(),
-                                    !aliases.toString().equals("") ? " (" + aliases + ")" : "",
-                                    command.getArguments() != null ? " " + command.getArguments() : "",
-                                    command.getCategory() != null ? " (`" + command.getCategory().getName() + "`)" : ""),
-                            // Capitalize first letter (inbuilt org.megargayu.commands have lowercase first character)
-                            command.getHelp().substring(0, 1).toUpperCase() + command.getHelp().substring(1),
-                            false));
-                }
-            }
-
-            event.reply(embedBuilder.build());
-        } else if (!event.getArgs().contains(" ")) {
-            String commandStr = event.getArgs();
-            for (Command cmd : event.getClient().getCommands()) {
-                boolean isCommand = cmd.getName().equals(commandStr);
-                if (!isCommand)
-                    for (String alias : cmd.getAliases())
-                        if (alias.equals(commandStr)) {
-                            isCommand = true;
-                            break;
-                        }
-
-                if (isCommand) {
-                    StringBuilder description = new StringBuilder(cmd.getHelp());
-                    if (cmd.getAliases().length > 0) {
-                        description.append("\n**Aliases:** `");
-                        for (int i = 0; i < cmd.getAliases().length; i++)
-                            description.append(cmd.getAliases()[i]).
-                                    append((i < cmd.getAliases().length - 1) ? " " : "");
-                        description.append("`");
-                    }
-                    description.append("\n**Usage:** `")
-                            .append(event.getClient().getTextualPrefix())
-                            .append(cmd.getName())
-                            .append("`")
-                            .append((cmd.getArguments() == null) ? "" : " `" + cmd.getArguments() + "`");
-                    description.append("\n**Cooldown:** ")
-                            .append(cmd.getCooldown()).append(" second(s)");
-
-                    EmbedBuilder embedBuilder = new EmbedBuilder()
-                            .setColor(embedColor)
-                            .setTitle(cmd.getName())
-                            .setDescription(description.toString())
-                            .setAuthor(event.getSelfUser().getName(), event.getSelfUser().getAvatarUrl())
-                            .setFooter(event.getSelfUser().getName(), event.getSelfUser().getAvatarUrl())
-                            .setTimestamp(new Date().toInstant());
-
-                    // Remove these if statements if you don't want to use ArgumentCommands
-                    if (cmd instanceof ArgumentCommand && ((ArgumentCommand) cmd).getRequiredArguments().length > 0) {
-                        ArgumentCommand argumentCmd = (ArgumentCommand) cmd;
-                        StringBuilder requiredArgs = new StringBuilder();
-                        for (int i = 0; i < argumentCmd.getRequiredArguments().length; i++) {
-                            Argument arg = argumentCmd.getRequiredArguments()[i];
-                            requiredArgs.append("**`").append(arg.getName().toUpperCase()).append("`** ")
-                                    .append((arg.getType() != null) ? "type: `" + arg.getType() + "`" :
-                                            "(no type specified")
-                                    .append("\n")
-                                    .append((arg.getDescription() != null && arg.getDescription().length() > 0) ?
-                                            arg.getDescription() : "No description found!")
-                                    .append((i < argumentCmd.getRequiredArguments().length - 1) ? "\n\n" : "");
-                        }
-
-                        embedBuilder.addField(new MessageEmbed.Field("Required Arguments",
-                                requiredArgs.toString(),
-                                false));
-                    }
-
-                    if (cmd instanceof ArgumentCommand && ((ArgumentCommand) cmd).getOptionalArguments().length > 0) {
-                        ArgumentCommand argumentCmd = (ArgumentCommand) cmd;
-                        StringBuilder optionalArgs = new StringBuilder();
-                        for (int i = 0; i < argumentCmd.getOptionalArguments().length; i++) {
-                            Argument arg = argumentCmd.getOptionalArguments()[i];
-                            optionalArgs.append("**`").append(arg.getName().toUpperCase()).append("`** ")
-                                    .append((arg.getType() != null) ? "type: `" + arg.getType() + "`" :
-                                            "(no type specified)")
-                                    .append("\n")
-                                    .append((arg.getDescription() != null && arg.getDescription().length() > 0) ?
-                                            arg.getDescription() : "No description found!")
-                                    .append((i < argumentCmd.getOptionalArguments().length - 1) ? "\n\n" : "");
-                        }
-
-                        embedBuilder.addField(new MessageEmbed.Field("Required Arguments",
-                                optionalArgs.toString(),
-                                false));
-                    }
-
-                    event.reply(embedBuilder.build());
-                    return;
-                }
-            }
+                    .setDescription(embeds.length == 1 ? DESCRIPTION :
+                            DESCRIPTION + String.format(pageHint, i + 1, embeds.length))
+                    .addField(helpField);
+            for (MessageEmbed.Field field : pages.get(i))
+                embedBuilder.addField(field);
+            embeds[i] = embedBuilder.build();
+        }
+        return embeds;
+    }
 
-            event.reply("Command '" + commandStr + "' not found!");
-        } else {
-            event.reply("Invalid usage of '" + event.getClient().getHelpWord() + "'!");
+    /**
+     * Create the field of a command in the command list
+     *
+     * @param prefix  The prefix of the client
+     * @param command The command
+     * @return The field
+     */
+    private static MessageEmbed.Field commandField(String prefix, Command command) {
+        StringBuilder name = new StringBuilder("`").append(prefix).append(command.getName());
+        String[] aliases = command.getAliases();
+        if (aliases.length > 0) {
+            name.append(" (");
+            for (int i = 0; i < aliases.length; i++)
+                name.append(prefix).append(aliases[i]).append((i < aliases.length - 1) ? ", " : "");
+            name.append(")");
         }
+        String arguments = command.getArguments();
+        if (arguments != null)
+            name.append(" ").append(arguments);
+        name.append("`");
+        if (command.getCategory() != null)
+            name.append(" (`").append(command.getCategory().getName()).append("`)");
+
+        // Capitalize first letter (inbuilt org.megargayu.commands have lowercase first character)
+        String help = command.getHelp();
+        return new MessageEmbed.Field(name.toString(),
+                help.isEmpty() ? help : Character.toUpperCase(help.charAt(0)) + help.substring(1), false);
+    }
+
+    private static int length(MessageEmbed.Field field) {
+        return field.getName().length() + field.getValue().length();
     }
 }
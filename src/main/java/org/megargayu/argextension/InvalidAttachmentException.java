@@ -0,0 +1,42 @@
+package org.megargayu.argextension;
+
+/**
+ * Thrown while the content of an attachment argument is read, when it turns out to be invalid - a line was
+ * rejected by the argument's validator, or the file is larger than the argument allows. If the body of an
+ * {@link ArgumentCommand} doesn't catch it, the invocation is rejected with its message (like an invalid argument).
+ */
+public class InvalidAttachmentException extends RuntimeException {
+    private final RejectionReason reason;
+    private final Argument argument;
+
+    /**
+     * Create an exception
+     *
+     * @param reason   {@link RejectionReason#INVALID_ATTACHMENT} or {@link RejectionReason#ATTACHMENT_TOO_LARGE}
+     * @param argument The attachment argument
+     * @param message  The error message
+     */
+    public InvalidAttachmentException(RejectionReason reason, Argument argument, String message) {
+        super(message);
+        this.reason = reason;
+        this.argument = argument;
+    }
+
+    /**
+     * Get why the attachment is invalid
+     *
+     * @return The reason
+     */
+    public RejectionReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Get the attachment argument
+     *
+     * @return The argument
+     */
+    public Argument getArgument() {
+        return argument;
+    }
+}
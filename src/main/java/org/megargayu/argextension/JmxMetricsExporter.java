@@ -0,0 +1,204 @@
+package org.megargayu.argextension;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exports the {@link CommandMetricsRecorder} of {@link ArgumentCommand}s over JMX, as
+ * {@code org.megargayu.argextension:type=CommandMetrics,name=<command name>}. Every attribute read takes a new
+ * {@link CommandMetricsRecorder#snapshot() snapshot}, so nothing is computed unless a JMX client asks for it.
+ * {@link BoundedExecutor}s can be exported too, to watch their queue depth.
+ */
+public class JmxMetricsExporter {
+    private final MBeanServer server;
+
+    /**
+     * Create an exporter for the platform MBean server
+     */
+    public JmxMetricsExporter() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Create an exporter for an MBean server
+     *
+     * @param server The MBean server to register with
+     */
+    public JmxMetricsExporter(MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Register the metrics of a command (replacing any metrics already registered under its name)
+     *
+     * @param commandName The name of the command
+     * @param recorder    The metrics of the command
+     */
+    public void register(String commandName, CommandMetricsRecorder recorder) {
+        try {
+            ObjectName objectName = objectName(commandName);
+            try {
+                server.registerMBean(new View(recorder), objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(new View(recorder), objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Couldn't register the metrics of " + commandName, e);
+        }
+    }
+
+    /**
+     * Register the metrics of a command, if it uses a {@link CommandMetricsRecorder}
+     *
+     * @param command The command
+     * @return Whether the metrics were registered
+     */
+    public boolean register(ArgumentCommand command) {
+        if (!(command.getMetrics() instanceof CommandMetricsRecorder))
+            return false;
+        register(command.getName(), (CommandMetricsRecorder) command.getMetrics());
+        return true;
+    }
+
+    /**
+     * Register a {@link BoundedExecutor}, as {@code org.megargayu.argextension:type=CommandExecutor,name=<name>}
+     * (replacing any executor already registered under the name)
+     *
+     * @param name     The name of the executor
+     * @param executor The executor
+     */
+    public void register(String name, BoundedExecutor executor) {
+        try {
+            ObjectName objectName = executorObjectName(name);
+            try {
+                server.registerMBean(executor, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(executor, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Couldn't register the executor " + name, e);
+        }
+    }
+
+    /**
+     * Unregister a {@link BoundedExecutor}
+     *
+     * @param name The name of the executor
+     */
+    public void unregisterExecutor(String name) {
+        try {
+            server.unregisterMBean(executorObjectName(name));
+        } catch (InstanceNotFoundException ignored) {
+            // Already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException("Couldn't unregister the executor " + name, e);
+        }
+    }
+
+    /**
+     * Unregister the metrics of a command
+     *
+     * @param commandName The name of the command
+     */
+    public void unregister(String commandName) {
+        try {
+            server.unregisterMBean(objectName(commandName));
+        } catch (InstanceNotFoundException ignored) {
+            // Already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException("Couldn't unregister the metrics of " + commandName, e);
+        }
+    }
+
+    private static ObjectName objectName(String commandName) throws JMException {
+        return new ObjectName("org.megargayu.argextension:type=CommandMetrics,name=" + ObjectName.quote(commandName));
+    }
+
+    private static ObjectName executorObjectName(String name) throws JMException {
+        return new ObjectName("org.megargayu.argextension:type=CommandExecutor,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * The MXBean implementation for a recorder
+     */
+    private static class View implements CommandMetricsMXBean {
+        private final CommandMetricsRecorder recorder;
+
+        private View(CommandMetricsRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public long getTokenizeCount() {
+            return recorder.snapshot().getTokenize().getCount();
+        }
+
+        @Override
+        public double getTokenizeMeanNanos() {
+            return recorder.snapshot().getTokenize().getMeanNanos();
+        }
+
+        @Override
+        public long getTokenizeP99Nanos() {
+            return recorder.snapshot().getTokenize().getPercentileNanos(99);
+        }
+
+        @Override
+        public long getExecuteCount() {
+            return recorder.snapshot().getExecute().getCount();
+        }
+
+        @Override
+        public double getExecuteMeanNanos() {
+            return recorder.snapshot().getExecute().getMeanNanos();
+        }
+
+        @Override
+        public long getExecuteP50Nanos() {
+            return recorder.snapshot().getExecute().getPercentileNanos(50);
+        }
+
+        @Override
+        public long getExecuteP99Nanos() {
+            return recorder.snapshot().getExecute().getPercentileNanos(99);
+        }
+
+        @Override
+        public long getExecuteMaxNanos() {
+            return recorder.snapshot().getExecute().getMaxNanos();
+        }
+
+        @Override
+        public long getQueueWaitP99Nanos() {
+            return recorder.snapshot().getQueueWait().getPercentileNanos(99);
+        }
+
+        @Override
+        public Map<String, Long> getValidatorP99Nanos() {
+            Map<String, Long> percentiles = new HashMap<>();
+            recorder.snapshot().getValidators().forEach((name, histogram) ->
+                    percentiles.put(name, histogram.getPercentileNanos(99)));
+            return percentiles;
+        }
+
+        @Override
+        public Map<String, Long> getRejections() {
+            Map<String, Long> rejections = new HashMap<>();
+            recorder.snapshot().getRejections().forEach((reason, count) -> rejections.put(reason.name(), count));
+            return rejections;
+        }
+
+        @Override
+        public Map<String, Long> getInvalidArguments() {
+            return new HashMap<>(recorder.snapshot().getInvalidArguments());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.megargayu.argextension;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram. Values are counted in buckets which split every power of two into four, so
+ * percentiles are accurate to within 25%.
+ */
+public class LatencyHistogram {
+    /**
+     * The number of buckets per power of two (as a power of two)
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a value
+     *
+     * @param nanos The value (negative values are recorded as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Take a snapshot of the histogram (values recorded while the snapshot is taken may or may not be included)
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = buckets.get(i);
+        return new Snapshot(counts, count.sum(), total.sum(), max.get());
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * An immutable snapshot of a {@link LatencyHistogram}
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Get the number of recorded values
+         *
+         * @return The number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the sum of all recorded values
+         *
+         * @return The total in nanoseconds
+         */
+        public long getTotalNanos() {
+            return total;
+        }
+
+        /**
+         * Get the mean of all recorded values
+         *
+         * @return The mean in nanoseconds (0 if nothing was recorded)
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * Get the largest recorded value
+         *
+         * @return The maximum in nanoseconds
+         */
+        public long getMaxNanos() {
+            return max;
+        }
+
+        /**
+         * Get a percentile of the recorded values (the upper bound of the bucket it falls in, capped at the
+         * maximum)
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return The percentile in nanoseconds (0 if nothing was recorded)
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100)
+                throw new IllegalArgumentException("Percentile must be between 0 and 100!");
+            long bucketTotal = 0;
+            for (long bucketCount : counts)
+                bucketTotal += bucketCount;
+            if (bucketTotal == 0)
+                return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * bucketTotal));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return Math.min(upperBoundOf(i), max);
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0fns p50=%dns p99=%dns max=%dns", count, getMeanNanos(),
+                    getPercentileNanos(50), getPercentileNanos(99), max);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.megargayu.argextension;
+
+/**
+ * The reason an {@link ArgumentCommand} invocation was rejected before its body was executed
+ */
+public enum RejectionReason {
+    /**
+     * No arguments were provided, but some are required
+     */
+    NO_ARGUMENTS,
+
+    /**
+     * Not all required arguments were provided
+     */
+    MISSING_REQUIRED,
+
+    /**
+     * More arguments were provided than could be passed in
+     */
+    TOO_MANY,
+
+    /**
+     * A validator rejected an argument
+     */
+    INVALID_ARGUMENT,
+
+    /**
+     * The {@link AsyncValidator}s didn't complete in time
+     */
+    VALIDATION_TIMEOUT,
+
+    /**
+     * The arguments were longer than {@link ArgumentCommand#maxInputLength}
+     */
+    INPUT_TOO_LONG,
+
+    /**
+     * The arguments had more tokens than {@link ArgumentCommand#maxTokens}
+     */
+    TOO_MANY_TOKENS,
+
+    /**
+     * An argument was longer than {@link ArgumentCommand#maxArgumentLength}
+     */
+    ARGUMENT_TOO_LONG,
+
+    /**
+     * A named option isn't one of the command's {@link ArgumentCommand#options}, or was passed with or without a
+     * value when it shouldn't be
+     */
+    INVALID_OPTION,
+
+    /**
+     * The arguments didn't start with one of the command's {@link ArgumentCommand#subcommands}, and the command
+     * takes no arguments of its own
+     */
+    UNKNOWN_SUBCOMMAND,
+
+    /**
+     * A batch had more lines than {@link ArgumentCommand#maxBatchRows} (see {@link ArgumentCommand#batchMode})
+     */
+    TOO_MANY_ROWS,
+
+    /**
+     * A required attachment argument (see {@link Argument#attachment}) wasn't attached
+     */
+    MISSING_ATTACHMENT,
+
+    /**
+     * An attachment was larger than its argument allows
+     */
+    ATTACHMENT_TOO_LARGE,
+
+    /**
+     * A line of an attachment was rejected by the validator of its argument, while the command was reading it
+     */
+    INVALID_ATTACHMENT
+}
@@ -0,0 +1,177 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A set of commands which can be changed while the bot is running. Every change builds a new {@link CommandRegistry}
+ * (with new help embeds and indexes) in the background and then publishes it, so readers - like a
+ * {@link HelpConsumer} created with this registry - always see one whole snapshot through a single volatile read,
+ * and never wait for a change. Changes are applied one at a time, in the order they were made.
+ * <p>
+ * Run the commands with a {@link CommandDispatcher} created with this registry rather than adding them to the
+ * command client: it looks every command up in the current snapshot, so a change becomes visible to dispatch in
+ * the same single write, with no moment where a replaced command isn't registered.
+ */
+public class ReloadableCommandRegistry implements Supplier<CommandRegistry> {
+    /**
+     * The executor the snapshots are built on
+     */
+    private final Executor executor;
+
+    /**
+     * The latest published snapshot
+     */
+    private volatile CommandRegistry current;
+
+    /**
+     * The snapshot after the last change which was made (completes when that change is published, and never
+     * fails - a change which fails keeps the previous snapshot). Only used by writers.
+     */
+    private CompletableFuture<CommandRegistry> latest;
+
+    /**
+     * Create a reloadable registry, which builds its snapshots on the common {@link ForkJoinPool}
+     *
+     * @param initial The first snapshot
+     */
+    public ReloadableCommandRegistry(CommandRegistry initial) {
+        this(initial, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a reloadable registry
+     *
+     * @param initial  The first snapshot
+     * @param executor The executor to build the snapshots on
+     */
+    public ReloadableCommandRegistry(CommandRegistry initial, Executor executor) {
+        if (initial == null)
+            throw new IllegalArgumentException("Initial registry cannot be null!");
+        if (executor == null)
+            throw new IllegalArgumentException("Executor cannot be null!");
+        this.executor = executor;
+        this.current = initial;
+        this.latest = CompletableFuture.completedFuture(initial);
+    }
+
+    /**
+     * Get the current snapshot
+     *
+     * @return The latest published registry
+     */
+    @Override
+    public CommandRegistry get() {
+        return current;
+    }
+
+    /**
+     * Add a command
+     *
+     * @param command The command
+     * @return A future which completes with the new snapshot once it is published, or fails with an
+     * {@link IllegalArgumentException} if a command with the same name is already registered
+     */
+    public CompletableFuture<CommandRegistry> add(Command command) {
+        if (command == null)
+            throw new IllegalArgumentException("Command cannot be null!");
+        return update(commands -> {
+            if (indexOf(commands, command.getName()) != -1)
+                throw new IllegalArgumentException("Command `" + command.getName() + "` is already registered!");
+            Command[] added = Arrays.copyOf(commands, commands.length + 1);
+            added[commands.length] = command;
+            return added;
+        });
+    }
+
+    /**
+     * Replace the command with the same name as another one (for example with a new instance with different
+     * arguments), keeping its position in the command list
+     *
+     * @param command The new command
+     * @return A future which completes with the new snapshot once it is published, or fails with an
+     * {@link IllegalArgumentException} if there is no command with the same name
+     */
+    public CompletableFuture<CommandRegistry> replace(Command command) {
+        if (command == null)
+            throw new IllegalArgumentException("Command cannot be null!");
+        return update(commands -> {
+            int index = indexOf(commands, command.getName());
+            if (index == -1)
+                throw new IllegalArgumentException("Command `" + command.getName() + "` isn't registered!");
+            Command[] replaced = commands.clone();
+            replaced[index] = command;
+            return replaced;
+        });
+    }
+
+    /**
+     * Remove a command
+     *
+     * @param name The name of the command
+     * @return A future which completes with the new snapshot once it is published, or fails with an
+     * {@link IllegalArgumentException} if there is no command with that name
+     */
+    public CompletableFuture<CommandRegistry> remove(String name) {
+        return update(commands -> {
+            int index = indexOf(commands, name);
+            if (index == -1)
+                throw new IllegalArgumentException("Command `" + name + "` isn't registered!");
+            Command[] removed = new Command[commands.length - 1];
+            System.arraycopy(commands, 0, removed, 0, index);
+            System.arraycopy(commands, index + 1, removed, index, removed.length - index);
+            return removed;
+        });
+    }
+
+    /**
+     * Rebuild the snapshot from the same commands, after a command was changed in place (for example its help)
+     *
+     * @return A future which completes with the new snapshot once it is published
+     */
+    public CompletableFuture<CommandRegistry> rebuild() {
+        return update(UnaryOperator.identity());
+    }
+
+    /**
+     * Queue a change of the commands
+     *
+     * @param change The change, which gets (a copy of) the commands of the previous snapshot and returns the new
+     *               ones
+     * @return A future which completes with the new snapshot once it is published
+     */
+    private synchronized CompletableFuture<CommandRegistry> update(UnaryOperator<Command[]> change) {
+        CompletableFuture<CommandRegistry> published = latest.thenApplyAsync(previous ->
+                publish(previous, change.apply(previous.getCommands())), executor);
+        // The snapshot of a failed change is never published, so the current one is still the latest
+        latest = published.exceptionally(e -> current);
+        return published;
+    }
+
+    /**
+     * Build and publish a new snapshot
+     *
+     * @param previous The previous snapshot
+     * @param commands The new commands
+     * @return The new snapshot
+     */
+    private CommandRegistry publish(CommandRegistry previous, Command[] commands) {
+        CommandRegistry registry = new CommandRegistry(previous.getPrefix(), previous.getHelpWord(),
+                previous.getEmbedColor(), commands);
+        current = registry;
+        return registry;
+    }
+
+    private static int indexOf(Command[] commands, String name) {
+        for (int i = 0; i < commands.length; i++)
+            if (commands[i].getName().equalsIgnoreCase(name))
+                return i;
+        return -1;
+    }
+}
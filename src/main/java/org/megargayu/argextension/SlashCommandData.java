@@ -0,0 +1,261 @@
+package org.megargayu.argextension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The definition of a slash command generated from an {@link ArgumentCommand}, so the same {@link Argument}s serve
+ * both text commands and slash commands. Required arguments become required options, and optional arguments, named
+ * options and flags become optional ones, with their {@link Argument#getSlashOptionType() types} and
+ * {@link Argument#getSlashChoices() choices}. Subcommands become subcommands (and subcommand groups, one level
+ * deep).
+ * <p>
+ * The definition is rendered as the JSON Discord expects when creating a command, and its SHA-256 hash is used by
+ * {@link SlashCommandSync} to only upload commands which changed.
+ */
+public final class SlashCommandData {
+    /**
+     * The maximum number of options (and choices of an option) Discord allows
+     */
+    private static final int MAX_OPTIONS = 25;
+
+    /**
+     * The maximum length of a description Discord allows
+     */
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+
+    /**
+     * The names Discord allows for commands and options
+     */
+    private static final Pattern NAME = Pattern.compile("[\\w-]{1,32}");
+
+    private final String name;
+    private final String description;
+    private final SlashOption[] options;
+
+    /**
+     * The JSON of the definition, and its SHA-256 hash (as lowercase hex)
+     */
+    private final String json, hash;
+
+    private SlashCommandData(String name, String description, SlashOption[] options) {
+        this.name = name;
+        this.description = description;
+        this.options = options;
+
+        StringBuilder json = new StringBuilder("{\"name\":");
+        appendString(json, name);
+        json.append(",\"description\":");
+        appendString(json, description);
+        appendOptions(json, options);
+        this.json = json.append("}").toString();
+        this.hash = sha256(this.json);
+    }
+
+    /**
+     * Generate the slash command of an {@link ArgumentCommand}
+     *
+     * @param command The command
+     * @return The slash command
+     * @throws IllegalArgumentException If the command can't be a slash command - if a name isn't allowed by Discord,
+     *                                  there are more than 25 options, a command has both subcommands and arguments,
+     *                                  or subcommands are nested more than two levels deep
+     */
+    public static SlashCommandData of(ArgumentCommand command) {
+        return new SlashCommandData(name(command.getName()), description(command.getHelp()),
+                options(command, 0));
+    }
+
+    /**
+     * Generate the options of a command, or of a subcommand at some depth
+     *
+     * @param command The command
+     * @param depth   The depth of the command (0 for the command itself)
+     * @return The options
+     */
+    private static SlashOption[] options(ArgumentCommand command, int depth) {
+        SubcommandNode node = command.getSubcommandNode();
+        Argument[] required = command.getRequiredArguments();
+        Argument[] optional = command.getOptionalArguments();
+        Argument[] named = command.getOptions();
+
+        if (!node.isEmpty()) {
+            if (required.length + optional.length + named.length > 0)
+                throw new IllegalArgumentException("Slash command `" + command.getQualifiedName() + "` cannot " +
+                        "have both subcommands and arguments!");
+            if (depth == 2)
+                throw new IllegalArgumentException("Slash command `" + command.getQualifiedName() + "` cannot " +
+                        "have subcommands more than two levels deep!");
+
+            ArgumentCommand[] subcommands = node.getSubcommands();
+            SlashOption[] options = new SlashOption[subcommands.length];
+            for (int i = 0; i < subcommands.length; i++) {
+                ArgumentCommand subcommand = subcommands[i];
+                SlashOption[] children = options(subcommand, depth + 1);
+                boolean group = !subcommand.getSubcommandNode().isEmpty();
+                options[i] = new SlashOption(group ? SlashOptionType.SUB_COMMAND_GROUP : SlashOptionType.SUB_COMMAND,
+                        name(subcommand.getName()), description(subcommand.getHelp()), false, null, children);
+            }
+            return checkCount(command, options);
+        }
+
+        SlashOption[] options = new SlashOption[required.length + optional.length + named.length];
+        int count = 0;
+        for (Argument argument : required)
+            options[count++] = option(argument, true);
+        for (Argument argument : optional)
+            options[count++] = option(argument, false);
+        for (Argument argument : named)
+            options[count++] = option(argument, false);
+        return checkCount(command, options);
+    }
+
+    private static SlashOption[] checkCount(ArgumentCommand command, SlashOption[] options) {
+        if (options.length > MAX_OPTIONS)
+            throw new IllegalArgumentException("Slash command `" + command.getQualifiedName() + "` cannot have " +
+                    "more than " + MAX_OPTIONS + " options!");
+        return options;
+    }
+
+    private static SlashOption option(Argument argument, boolean required) {
+        // Discord only allows a few choices - with more, any value can be chosen and the validator rejects it
+        String[] choices = argument.getSlashChoices();
+        if (choices != null && (choices.length == 0 || choices.length > MAX_OPTIONS))
+            choices = null;
+        return new SlashOption(argument.getSlashOptionType(), name(argument.getName()),
+                description(argument.getDescription()), required, choices, new SlashOption[0]);
+    }
+
+    /**
+     * Convert a name to the name of a slash command or option
+     *
+     * @param name The name
+     * @return The lower-cased name
+     * @throws IllegalArgumentException If Discord doesn't allow the name
+     */
+    private static String name(String name) {
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        if (!NAME.matcher(lowerCase).matches())
+            throw new IllegalArgumentException("`" + name + "` cannot be used as the name of a slash command or " +
+                    "option!");
+        return lowerCase;
+    }
+
+    /**
+     * Convert a description to the description of a slash command or option
+     *
+     * @param description The description (can be null)
+     * @return The description, cut off at the length Discord allows
+     */
+    private static String description(String description) {
+        if (description == null || description.isEmpty())
+            return "No description found!";
+        return description.length() <= MAX_DESCRIPTION_LENGTH ? description :
+                description.substring(0, MAX_DESCRIPTION_LENGTH - 3) + "...";
+    }
+
+    /**
+     * Append the {@code options} property of a command or option
+     *
+     * @param json    The builder to append to
+     * @param options The options
+     */
+    static void appendOptions(StringBuilder json, SlashOption[] options) {
+        json.append(",\"options\":[");
+        for (int i = 0; i < options.length; i++) {
+            if (i > 0)
+                json.append(",");
+            options[i].appendJson(json);
+        }
+        json.append("]");
+    }
+
+    /**
+     * Append a JSON string
+     *
+     * @param json  The builder to append to
+     * @param value The string
+     */
+    static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+                json.append('\\').append(c);
+            else if (c < 0x20)
+                json.append(String.format("\\u%04x", (int) c));
+            else
+                json.append(c);
+        }
+        json.append('"');
+    }
+
+    private static String sha256(String value) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+
+    /**
+     * Get the name of the slash command
+     *
+     * @return The lower-cased name of the command
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the description of the slash command
+     *
+     * @return The help of the command, cut off at the length Discord allows
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Get the options of the slash command
+     *
+     * @return A copy of the options
+     */
+    public SlashOption[] getOptions() {
+        return options.clone();
+    }
+
+    /**
+     * Get the definition as the JSON Discord expects when creating a command
+     *
+     * @return The JSON
+     */
+    public String toJson() {
+        return json;
+    }
+
+    /**
+     * Get the hash of the definition, which changes whenever anything Discord would see changes
+     *
+     * @return The SHA-256 hash of the {@link #toJson() JSON}, as lowercase hex
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
@@ -0,0 +1,26 @@
+package org.megargayu.argextension;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where {@link SlashCommandSync} uploads slash commands to - Discord's command endpoints, or a local stand-in when
+ * testing. Both methods are keyed by name, like Discord's: creating a command with the name of an existing one
+ * overwrites it.
+ */
+public interface SlashCommandRegistrar {
+    /**
+     * Create a slash command, or overwrite the one with the same name
+     *
+     * @param command The command
+     * @return A future which completes once the command is registered
+     */
+    CompletableFuture<Void> upsert(SlashCommandData command);
+
+    /**
+     * Delete a slash command
+     *
+     * @param name The name of the command
+     * @return A future which completes once the command is deleted
+     */
+    CompletableFuture<Void> delete(String name);
+}
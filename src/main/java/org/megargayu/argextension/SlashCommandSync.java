@@ -0,0 +1,243 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the slash commands of a bot in sync with its {@link ArgumentCommand}s, without uploading every command on
+ * every start. The {@link SlashCommandData#getHash() hash} of every uploaded command is kept in a local manifest
+ * file, and on the next sync only the commands whose hash changed are uploaded (and the ones which no longer exist
+ * deleted), which keeps deploys clear of Discord's rate limits on creating commands.
+ * <p>
+ * Only {@link ArgumentCommand}s which aren't hidden or owner commands are synced.
+ */
+public class SlashCommandSync {
+    private final SlashCommandRegistrar registrar;
+
+    /**
+     * The manifest file - one {@code name=hash} line per uploaded command
+     */
+    private final Path manifest;
+
+    /**
+     * Create a sync
+     *
+     * @param registrar Where the commands are uploaded to
+     * @param manifest  The file the hashes of the uploaded commands are kept in (created by the first sync)
+     */
+    public SlashCommandSync(SlashCommandRegistrar registrar, Path manifest) {
+        if (registrar == null)
+            throw new IllegalArgumentException("Registrar cannot be null!");
+        if (manifest == null)
+            throw new IllegalArgumentException("Manifest cannot be null!");
+        this.registrar = registrar;
+        this.manifest = manifest;
+    }
+
+    /**
+     * The outcome of a sync
+     */
+    public static final class Result {
+        private final List<String> uploaded, deleted, unchanged;
+        private final Map<String, Throwable> failed;
+
+        private Result(List<String> uploaded, List<String> deleted, List<String> unchanged,
+                       Map<String, Throwable> failed) {
+            this.uploaded = Collections.unmodifiableList(uploaded);
+            this.deleted = Collections.unmodifiableList(deleted);
+            this.unchanged = Collections.unmodifiableList(unchanged);
+            this.failed = Collections.unmodifiableMap(failed);
+        }
+
+        /**
+         * Get the commands which were new or changed, and were uploaded
+         *
+         * @return The names of the commands
+         */
+        public List<String> getUploaded() {
+            return uploaded;
+        }
+
+        /**
+         * Get the commands which no longer exist, and were deleted
+         *
+         * @return The names of the commands
+         */
+        public List<String> getDeleted() {
+            return deleted;
+        }
+
+        /**
+         * Get the commands which were already up to date
+         *
+         * @return The names of the commands
+         */
+        public List<String> getUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Get the commands which couldn't be uploaded or deleted (they are tried again on the next sync)
+         *
+         * @return The errors by the name of the command
+         */
+        public Map<String, Throwable> getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return "uploaded: " + uploaded + ", deleted: " + deleted + ", unchanged: " + unchanged.size() +
+                    ", failed: " + failed.keySet();
+        }
+    }
+
+    /**
+     * Sync the commands of a registry
+     *
+     * @param registry The registry
+     * @return A future which completes with the outcome once every change is done and the manifest is written
+     * @see #sync(Collection)
+     */
+    public CompletableFuture<Result> sync(CommandRegistry registry) {
+        return sync(Arrays.asList(registry.getCommands()));
+    }
+
+    /**
+     * Upload the commands which are new or changed since the last sync, and delete the ones which no longer exist.
+     * The manifest is updated with every change that succeeded.
+     *
+     * @param commands The commands
+     * @return A future which completes with the outcome once every change is done and the manifest is written (or
+     * fails with an {@link UncheckedIOException} if the manifest can't be written)
+     * @throws IllegalArgumentException If a command can't be a slash command (see {@link SlashCommandData#of}), or
+     *                                  two commands have the same name
+     * @throws UncheckedIOException     If the manifest can't be read
+     */
+    public CompletableFuture<Result> sync(Collection<? extends Command> commands) {
+        Map<String, SlashCommandData> current = new LinkedHashMap<>();
+        for (Command command : commands) {
+            if (!(command instanceof ArgumentCommand) || command.isHidden() || command.isOwnerCommand())
+                continue;
+            SlashCommandData data = SlashCommandData.of((ArgumentCommand) command);
+            if (current.putIfAbsent(data.getName(), data) != null)
+                throw new IllegalArgumentException("Duplicate slash command name `" + data.getName() + "`!");
+        }
+
+        Map<String, String> previous = readManifest();
+        Map<String, String> next = new TreeMap<>(previous);
+        List<String> uploaded = new ArrayList<>(), deleted = new ArrayList<>(), unchanged = new ArrayList<>();
+        Map<String, Throwable> failed = Collections.synchronizedMap(new HashMap<>());
+        List<CompletableFuture<?>> changes = new ArrayList<>();
+
+        for (SlashCommandData data : current.values()) {
+            if (data.getHash().equals(previous.get(data.getName()))) {
+                unchanged.add(data.getName());
+                continue;
+            }
+            changes.add(change(registrar.upsert(data), data.getName(), failed,
+                    () -> uploaded.add(data.getName()), () -> next.put(data.getName(), data.getHash())));
+        }
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name))
+                changes.add(change(registrar.delete(name), name, failed, () -> deleted.add(name),
+                        () -> next.remove(name)));
+        }
+
+        return CompletableFuture.allOf(changes.toArray(new CompletableFuture<?>[0])).handle((ignored, e) -> {
+            writeManifest(next);
+            return new Result(uploaded, deleted, unchanged, failed);
+        });
+    }
+
+    /**
+     * Record the outcome of one upload or delete
+     *
+     * @param future   The future of the change
+     * @param name     The name of the command
+     * @param failed   The errors by name
+     * @param record   Adds the command to the result (once the change succeeded)
+     * @param manifest Updates the manifest (once the change succeeded)
+     * @return A future which completes (normally) once the outcome is recorded
+     */
+    private static CompletableFuture<Void> change(CompletableFuture<Void> future, String name,
+                                                  Map<String, Throwable> failed, Runnable record, Runnable manifest) {
+        return future.handle((ignored, e) -> {
+            if (e != null) {
+                failed.put(name, e);
+                return null;
+            }
+            // Changes can complete on different threads, so the lists and manifest are only updated one at a time
+            synchronized (failed) {
+                record.run();
+                manifest.run();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Read the hashes of the commands uploaded by the last sync
+     *
+     * @return The hashes by name (empty if there is no manifest yet)
+     */
+    private Map<String, String> readManifest() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            return new HashMap<>();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read the slash command manifest " + manifest + "!", e);
+        }
+
+        Map<String, String> hashes = new HashMap<>();
+        for (String name : properties.stringPropertyNames())
+            hashes.put(name, properties.getProperty(name));
+        return hashes;
+    }
+
+    /**
+     * Write the manifest, replacing the old one at once so a crash never leaves half of it behind
+     *
+     * @param hashes The hashes by name
+     */
+    private void writeManifest(Map<String, String> hashes) {
+        Path temporary = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("# Slash commands uploaded by SlashCommandSync (name=hash)\n");
+                for (Map.Entry<String, String> entry : new TreeMap<>(hashes).entrySet())
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+            try {
+                Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the slash command manifest " + manifest + "!", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.megargayu.argextension;
+
+/**
+ * An option of a {@link SlashCommandData} - an {@link Argument}, or a subcommand (or group of subcommands) with
+ * options of its own
+ */
+public final class SlashOption {
+    private final SlashOptionType type;
+    private final String name;
+    private final String description;
+    private final boolean required;
+
+    /**
+     * The only values which can be chosen (null if any value can be)
+     */
+    private final String[] choices;
+
+    /**
+     * The options of a subcommand or group (empty for other options)
+     */
+    private final SlashOption[] options;
+
+    /**
+     * Create an option
+     *
+     * @param type        The type of the option
+     * @param name        The name of the option
+     * @param description The description of the option
+     * @param required    Whether the option has to be passed
+     * @param choices     The only values which can be chosen (can be null)
+     * @param options     The options of a subcommand or group
+     */
+    SlashOption(SlashOptionType type, String name, String description, boolean required, String[] choices,
+                SlashOption[] options) {
+        this.type = type;
+        this.name = name;
+        this.description = description;
+        this.required = required;
+        this.choices = choices;
+        this.options = options;
+    }
+
+    /**
+     * Get the type of the option
+     *
+     * @return The type
+     */
+    public SlashOptionType getType() {
+        return type;
+    }
+
+    /**
+     * Get the name of the option
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the description of the option
+     *
+     * @return The description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Get if the option has to be passed
+     *
+     * @return Whether the option is required
+     */
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Get the only values which can be chosen
+     *
+     * @return A copy of the choices, or null if any value can be chosen
+     */
+    public String[] getChoices() {
+        return choices == null ? null : choices.clone();
+    }
+
+    /**
+     * Get the options of a subcommand or group
+     *
+     * @return A copy of the options (empty for other options)
+     */
+    public SlashOption[] getOptions() {
+        return options.clone();
+    }
+
+    /**
+     * Append the JSON Discord expects for this option
+     *
+     * @param json The builder to append to
+     */
+    void appendJson(StringBuilder json) {
+        json.append("{\"type\":").append(type.getKey()).append(",\"name\":");
+        SlashCommandData.appendString(json, name);
+        json.append(",\"description\":");
+        SlashCommandData.appendString(json, description);
+        if (required)
+            json.append(",\"required\":true");
+        if (choices != null) {
+            json.append(",\"choices\":[");
+            for (int i = 0; i < choices.length; i++) {
+                json.append(i > 0 ? ",{\"name\":" : "{\"name\":");
+                SlashCommandData.appendString(json, choices[i]);
+                json.append(",\"value\":");
+                SlashCommandData.appendString(json, choices[i]);
+                json.append("}");
+            }
+            json.append("]");
+        }
+        if (options.length > 0)
+            SlashCommandData.appendOptions(json, options);
+        json.append("}");
+    }
+}
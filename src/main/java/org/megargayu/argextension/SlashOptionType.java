@@ -0,0 +1,33 @@
+package org.megargayu.argextension;
+
+/**
+ * The type of an option of a slash command, as Discord defines it (see {@link SlashCommandData}). The type of an
+ * {@link Argument} comes from its {@link Validator#getSlashOptionType() validator}.
+ */
+public enum SlashOptionType {
+    SUB_COMMAND(1),
+    SUB_COMMAND_GROUP(2),
+    STRING(3),
+    INTEGER(4),
+    BOOLEAN(5),
+    USER(6),
+    CHANNEL(7),
+    ROLE(8),
+    NUMBER(10),
+    ATTACHMENT(11);
+
+    private final int key;
+
+    SlashOptionType(int key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the number Discord uses for this type
+     *
+     * @return The number of the type
+     */
+    public int getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,150 @@
+package org.megargayu.argextension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A node of the subcommand trie of an {@link ArgumentCommand} - the {@link ArgumentCommand#subcommands} of one
+ * command by their lower-cased names and aliases. Each subcommand has a node of its own, so matching the leading
+ * words of the arguments against the tree is one hash lookup per word. Nodes are immutable, and are compiled once
+ * and cached by their command (like {@link ArgumentSchema}).
+ */
+final class SubcommandNode {
+    /**
+     * A node without subcommands
+     */
+    static final SubcommandNode EMPTY = new SubcommandNode(null, null);
+
+    /**
+     * The qualified name of the command and the subcommands this node was compiled from (compared by reference)
+     */
+    private final String commandName;
+    private final ArgumentCommand[] source;
+
+    /**
+     * A copy of the subcommands, in the order they were declared
+     */
+    private final ArgumentCommand[] subcommands;
+
+    /**
+     * The subcommands by lower-cased name and alias
+     */
+    private final Map<String, ArgumentCommand> children;
+
+    /**
+     * The usage string of the subcommands, for example {@code {set|get}}
+     */
+    private final String usage;
+
+    /**
+     * The names and aliases of the subcommands, for suggestions
+     */
+    private final SuggestionIndex suggestions;
+
+    /**
+     * Compile a node, and give each subcommand its qualified name (for example {@code config set}) so its usage
+     * and error messages include the whole path
+     *
+     * @param commandName The qualified name of the command
+     * @param subcommands The subcommands of the command (can be null)
+     */
+    SubcommandNode(String commandName, ArgumentCommand[] subcommands) {
+        this.commandName = commandName;
+        this.source = subcommands;
+        this.subcommands = subcommands == null ? new ArgumentCommand[0] : subcommands.clone();
+        this.children = new HashMap<>();
+
+        StringBuilder usage = new StringBuilder("{");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < this.subcommands.length; i++) {
+            ArgumentCommand subcommand = this.subcommands[i];
+            if (subcommand == null)
+                throw new IllegalArgumentException("Subcommands cannot be null!");
+            if (subcommand.getName() == null || subcommand.getName().length() == 0)
+                throw new IllegalArgumentException("Subcommand names cannot be null or empty!");
+
+            put(subcommand.getName(), subcommand);
+            names.add(subcommand.getName());
+            for (String alias : subcommand.getAliases()) {
+                put(alias, subcommand);
+                names.add(alias);
+            }
+            subcommand.setQualifiedName(commandName + " " + subcommand.getName());
+            usage.append(subcommand.getName()).append(i < this.subcommands.length - 1 ? "|" : "}");
+        }
+        this.usage = this.subcommands.length == 0 ? "" : usage.toString();
+        this.suggestions = names.isEmpty() ? SuggestionIndex.EMPTY : new SuggestionIndex(names);
+    }
+
+    private void put(String name, ArgumentCommand subcommand) {
+        if (children.putIfAbsent(name.toLowerCase(Locale.ROOT), subcommand) != null)
+            throw new IllegalArgumentException("Duplicate subcommand name `" + name + "`!");
+    }
+
+    /**
+     * Check if this node was compiled from the given definition
+     *
+     * @param commandName The qualified name of the command
+     * @param subcommands The subcommands of the command
+     * @return Whether the definition is the one this node was compiled from
+     */
+    boolean isCompiledFrom(String commandName, ArgumentCommand[] subcommands) {
+        return this.commandName == commandName && source == subcommands;
+    }
+
+    /**
+     * Get if the command has no subcommands
+     *
+     * @return Whether there are no subcommands
+     */
+    boolean isEmpty() {
+        return subcommands.length == 0;
+    }
+
+    /**
+     * Find the subcommand with a name or alias (ignoring case)
+     *
+     * @param word The word to look up
+     * @return The subcommand, or null if there is none with that name
+     */
+    ArgumentCommand get(String word) {
+        return children.get(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the subcommands
+     *
+     * @return The subcommands, in the order they were declared
+     */
+    ArgumentCommand[] getSubcommands() {
+        return subcommands;
+    }
+
+    /**
+     * Get the usage string of the subcommands
+     *
+     * @return The usage string, for example {@code {set|get}} (empty if there are no subcommands)
+     */
+    String getUsage() {
+        return usage;
+    }
+
+    /**
+     * Render the error for when the arguments don't start with a subcommand, and the command takes no arguments of
+     * its own (suggesting the closest subcommand, if there is one)
+     *
+     * @param word   The first word of the arguments (null if there were no arguments)
+     * @param prefix The prefix of the command client
+     * @return The error message
+     */
+    String renderUnknown(String word, String prefix) {
+        String suggestion = word == null ? null : suggestions.suggest(word);
+        return (word == null ? "You didn't provide a subcommand!" :
+                "`" + word + "` isn't a subcommand of `" + commandName + "`!") +
+                (suggestion == null ? "" : " Did you mean `" + suggestion + "`?") +
+                "\nThe proper usage would be: `" + prefix + commandName + " " + usage + "`";
+    }
+}
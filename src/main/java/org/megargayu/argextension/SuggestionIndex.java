@@ -0,0 +1,219 @@
+package org.megargayu.argextension;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable index for "did you mean" suggestions, which finds the word closest to a misspelled one (ignoring
+ * case). The words are stored in a BK-tree by their edit distance (insertions, deletions and substitutions) to each
+ * other, so a lookup only measures the distance to a small part of the words - it stays well under a millisecond
+ * for thousands of words.
+ * <p>
+ * The index is built once and can be shared by all threads.
+ */
+public class SuggestionIndex {
+    /**
+     * An index without any words
+     */
+    public static final SuggestionIndex EMPTY = new SuggestionIndex(new String[0]);
+
+    /**
+     * A node of the BK-tree - a word, and its children by their distance to it
+     */
+    private static final class Node {
+        private final String word;
+        private final String folded;
+        private final int order;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+
+        private Node(String word, int order) {
+            this.word = word;
+            this.folded = fold(word);
+            this.order = order;
+        }
+
+        private Node child(int distance) {
+            for (int i = 0; i < distances.length; i++)
+                if (distances[i] == distance)
+                    return children[i];
+            return null;
+        }
+
+        private void add(int distance, Node child) {
+            distances = Arrays.copyOf(distances, distances.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            distances[distances.length - 1] = distance;
+            children[children.length - 1] = child;
+        }
+    }
+
+    /**
+     * The root of the BK-tree (null if there are no words)
+     */
+    private final Node root;
+
+    /**
+     * The number of words in the index
+     */
+    private final int size;
+
+    /**
+     * Build an index
+     *
+     * @param words The words to suggest (duplicates, ignoring case, are only added once - the first one wins)
+     */
+    public SuggestionIndex(Collection<String> words) {
+        this(words.toArray(new String[0]));
+    }
+
+    /**
+     * Build an index
+     *
+     * @param words The words to suggest (duplicates, ignoring case, are only added once - the first one wins)
+     */
+    public SuggestionIndex(String... words) {
+        Node root = null;
+        int size = 0;
+        for (String word : words) {
+            if (word == null || word.length() == 0)
+                throw new IllegalArgumentException("Words cannot be null or empty!");
+            if (root == null) {
+                root = new Node(word, size);
+                size++;
+                continue;
+            }
+
+            Node node = new Node(word, size);
+            int[] previous = new int[node.folded.length() + 1];
+            int[] current = new int[node.folded.length() + 1];
+            Node parent = root;
+            while (true) {
+                int distance = distance(parent.folded, node.folded, previous, current);
+                if (distance == 0)
+                    break;
+                Node child = parent.child(distance);
+                if (child == null) {
+                    parent.add(distance, node);
+                    size++;
+                    break;
+                }
+                parent = child;
+            }
+        }
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the number of words in the index
+     *
+     * @return The number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the word closest to a misspelled one, if it is close enough to be what was meant - one edit away for
+     * words of 3 or 4 characters, two for up to 8 and three for longer words (there are no suggestions for shorter
+     * words, as almost anything is one edit away from them)
+     *
+     * @param word The misspelled word
+     * @return The closest word as it was added, or null if there is none close enough (or the word itself is in
+     * the index)
+     */
+    public String suggest(String word) {
+        int length = word.length();
+        if (length <= 2)
+            return null;
+        return suggest(word, length <= 4 ? 1 : length <= 8 ? 2 : 3);
+    }
+
+    /**
+     * Find the word closest to a misspelled one
+     *
+     * @param word        The misspelled word
+     * @param maxDistance The maximum number of edits between the words
+     * @return The closest word as it was added (the one added first if several are as close), or null if there is
+     * none within the distance (or the word itself is in the index)
+     */
+    public String suggest(String word, int maxDistance) {
+        if (root == null || word.length() == 0)
+            return null;
+
+        String folded = fold(word);
+        int[] previous = new int[folded.length() + 1];
+        int[] current = new int[folded.length() + 1];
+        Node[] stack = new Node[16];
+        stack[0] = root;
+        int depth = 1;
+
+        Node best = null;
+        int bestDistance = maxDistance + 1;
+        while (depth > 0) {
+            Node node = stack[--depth];
+            int distance = distance(node.folded, folded, previous, current);
+            if (distance == 0)
+                return null;
+            if (distance < bestDistance || distance == bestDistance && best != null && node.order < best.order) {
+                best = node;
+                bestDistance = distance;
+            }
+
+            // Only children within the best distance so far of the word can be as close (the triangle inequality).
+            // The children most likely to be close are pushed last, so they are searched first and the best
+            // distance shrinks as early as possible
+            int limit = Math.min(bestDistance, maxDistance);
+            for (int offset = limit; offset >= 0; offset--) {
+                for (int i = 0; i < node.distances.length; i++) {
+                    if (Math.abs(node.distances[i] - distance) == offset) {
+                        if (depth == stack.length)
+                            stack = Arrays.copyOf(stack, depth * 2);
+                        stack[depth++] = node.children[i];
+                    }
+                }
+            }
+        }
+        return best == null ? null : best.word;
+    }
+
+    /**
+     * Calculate the edit distance between two (case folded) words
+     *
+     * @param a        The first word
+     * @param b        The second word
+     * @param previous A buffer of at least {@code b.length() + 1} ints
+     * @param current  Another buffer of at least {@code b.length() + 1} ints
+     * @return The number of insertions, deletions and substitutions needed to turn one word into the other
+     */
+    private static int distance(String a, String b, int[] previous, int[] current) {
+        for (int j = 0; j <= b.length(); j++)
+            previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String fold(String word) {
+        StringBuilder folded = null;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            char lower = Character.toLowerCase(Character.toUpperCase(c));
+            if (lower != c && folded == null)
+                folded = new StringBuilder(word.length()).append(word, 0, i);
+            if (folded != null)
+                folded.append(lower);
+        }
+        return folded == null ? word : folded.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package org.megargayu.argextension;
 
+import com.jagrosh.jdautilities.command.CommandEvent;
+
 /**
  * A validator for an {@link Argument}
  */
@@ -11,4 +13,49 @@ public interface Validator {
      * @return If the output is valid and the error string (null if none provided)
      */
     ValidatorOutput isValid(String value);
+
+    /**
+     * Check if value is valid, with the event that triggered the command. {@link Converter}s convert the value
+     * here, and validators which wrap another validator (like {@link CachingValidator}) pass the call on
+     *
+     * @param event The {@link CommandEvent} that triggered the command
+     * @param value The value to check
+     * @return If the output is valid and the error string (null if none provided) - a {@link ConverterOutput}
+     * if the value was converted
+     */
+    default ValidatorOutput isValid(CommandEvent event, String value) {
+        return isValid(value);
+    }
+
+    /**
+     * Get if the output depends on the event as well as the value - for example a {@link Converter} which looks up
+     * a member of the guild. Such validators are never run without an event (the default values of options are
+     * checked with every invocation instead of once)
+     *
+     * @return Whether the validator needs the event (false by default)
+     */
+    default boolean isEventDependent() {
+        return false;
+    }
+
+    /**
+     * Get the type of the values this validator accepts, when its argument is an option of a slash command (see
+     * {@link SlashCommandData})
+     *
+     * @return The type of the option ({@link SlashOptionType#STRING} by default)
+     */
+    default SlashOptionType getSlashOptionType() {
+        return SlashOptionType.STRING;
+    }
+
+    /**
+     * Get the only values this validator accepts, when its argument is an option of a slash command (see
+     * {@link SlashCommandData})
+     *
+     * @return The choices, or null if any value of the {@link #getSlashOptionType() type} can be chosen (the
+     * default)
+     */
+    default String[] getSlashChoices() {
+        return null;
+    }
 }
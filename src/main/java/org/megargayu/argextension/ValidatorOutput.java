@@ -1,6 +1,11 @@
 package org.megargayu.argextension;
 
 public class ValidatorOutput {
+    /**
+     * A shared valid output (with no error message), so validators don't have to create a new one for every value
+     */
+    public static final ValidatorOutput VALID = new ValidatorOutput(true);
+
     private final boolean isValid;
     private final String errorMessage;
 
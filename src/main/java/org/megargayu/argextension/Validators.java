@@ -0,0 +1,581 @@
+package org.megargayu.argextension;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Built-in {@link Validator}s. None of them throw exceptions (input is checked with a single scan over its
+ * characters), and valid values return shared outputs - {@link ValidatorOutput#VALID} when only validating,
+ * or a {@link ConverterOutput} holding the unboxed value when converting. Invalid outputs are created once per
+ * validator, except when a choice validator suggests the closest choice ("did you mean").
+ * <p>
+ * Numbers are read as ASCII digits with an optional leading sign.
+ */
+public final class Validators {
+    /**
+     * Returned by {@link #parseInt(String, int, int)} when the input isn't an int
+     */
+    static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private Validators() {
+    }
+
+    /**
+     * A converter for ints between min and max (inclusive)
+     *
+     * @param min The minimum value
+     * @param max The maximum value
+     * @return The converter
+     */
+    public static Converter<Integer> intRange(int min, int max) {
+        return intRange(min, max, "Invalid integer provided! Must be between " + min + " and " + max + ".");
+    }
+
+    /**
+     * A converter for ints between min and max (inclusive)
+     *
+     * @param min          The minimum value
+     * @param max          The maximum value
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Integer> intRange(int min, int max, String errorMessage) {
+        checkRange(min <= max);
+        ConverterOutput<Integer> invalid = ConverterOutput.invalid(errorMessage);
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<Integer> convert(String value) {
+                long parsed = parseInt(value, 0, value.length());
+                return parsed != NOT_AN_INT && parsed >= min && parsed <= max ?
+                        ConverterOutput.ofInt((int) parsed) : invalid;
+            }
+
+            @Override
+            public ValidatorOutput isValid(String value) {
+                long parsed = parseInt(value, 0, value.length());
+                return parsed != NOT_AN_INT && parsed >= min && parsed <= max ? ValidatorOutput.VALID : invalid;
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return SlashOptionType.INTEGER;
+            }
+        };
+    }
+
+    /**
+     * A converter for longs between min and max (inclusive)
+     *
+     * @param min The minimum value
+     * @param max The maximum value
+     * @return The converter
+     */
+    public static Converter<Long> longRange(long min, long max) {
+        return longRange(min, max, "Invalid integer provided! Must be between " + min + " and " + max + ".");
+    }
+
+    /**
+     * A converter for longs between min and max (inclusive)
+     *
+     * @param min          The minimum value
+     * @param max          The maximum value
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Long> longRange(long min, long max, String errorMessage) {
+        checkRange(min <= max);
+        ConverterOutput<Long> invalid = ConverterOutput.invalid(errorMessage);
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<Long> convert(String value) {
+                if (!isLong(value, 0, value.length())) return invalid;
+                long parsed = parseLong(value, 0, value.length());
+                return parsed >= min && parsed <= max ? ConverterOutput.ofLong(parsed) : invalid;
+            }
+
+            @Override
+            public ValidatorOutput isValid(String value) {
+                if (!isLong(value, 0, value.length())) return invalid;
+                long parsed = parseLong(value, 0, value.length());
+                return parsed >= min && parsed <= max ? ValidatorOutput.VALID : invalid;
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return SlashOptionType.INTEGER;
+            }
+        };
+    }
+
+    /**
+     * A converter for decimal numbers (for example {@code -1.5} or {@code 2e10}) between min and max (inclusive)
+     *
+     * @param min The minimum value
+     * @param max The maximum value
+     * @return The converter
+     */
+    public static Converter<Double> decimalRange(double min, double max) {
+        return decimalRange(min, max, "Invalid number provided! Must be between " + min + " and " + max + ".");
+    }
+
+    /**
+     * A converter for decimal numbers (for example {@code -1.5} or {@code 2e10}) between min and max (inclusive)
+     *
+     * @param min          The minimum value
+     * @param max          The maximum value
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Double> decimalRange(double min, double max, String errorMessage) {
+        checkRange(min <= max);
+        ConverterOutput<Double> invalid = ConverterOutput.invalid(errorMessage);
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<Double> convert(String value) {
+                if (!isDecimal(value, 0, value.length())) return invalid;
+                // Can't throw, as the syntax was already checked
+                double parsed = Double.parseDouble(value);
+                return parsed >= min && parsed <= max ? ConverterOutput.ofDouble(parsed) : invalid;
+            }
+
+            @Override
+            public ValidatorOutput isValid(String value) {
+                if (!isDecimal(value, 0, value.length())) return invalid;
+                double parsed = Double.parseDouble(value);
+                return parsed >= min && parsed <= max ? ValidatorOutput.VALID : invalid;
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return SlashOptionType.NUMBER;
+            }
+        };
+    }
+
+    /**
+     * A converter for booleans - {@code true}/{@code false}, {@code yes}/{@code no}, {@code on}/{@code off}
+     * and {@code 1}/{@code 0} (case insensitive)
+     *
+     * @return The converter
+     */
+    public static Converter<Boolean> bool() {
+        return bool("Invalid boolean provided! Must be one of: true, false, yes, no, on, off, 1, 0");
+    }
+
+    /**
+     * A converter for booleans - {@code true}/{@code false}, {@code yes}/{@code no}, {@code on}/{@code off}
+     * and {@code 1}/{@code 0} (case insensitive)
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Boolean> bool(String errorMessage) {
+        ConverterOutput<Boolean> yes = ConverterOutput.ofBoolean(true);
+        ConverterOutput<Boolean> no = ConverterOutput.ofBoolean(false);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConverterOutput<Boolean>[] outputs = new ConverterOutput[]{yes, no, yes, no, yes, no, yes, no};
+        return choiceConverter(new ChoiceTable<>(
+                        new String[]{"true", "false", "yes", "no", "on", "off", "1", "0"}, outputs), errorMessage,
+                SlashOptionType.BOOLEAN);
+    }
+
+    /**
+     * A converter for a fixed set of choices (case insensitive) - the converted value is the choice as it was
+     * declared. If a value is close to one of the choices, it is suggested in the error message
+     *
+     * @param choices The allowed choices
+     * @return The converter
+     */
+    public static Converter<String> choice(String... choices) {
+        return choice(choices, "Invalid value provided! Must be one of: " + String.join(", ", choices));
+    }
+
+    /**
+     * A converter for a fixed set of choices (case insensitive) - the converted value is the choice as it was
+     * declared. If a value is close to one of the choices, it is suggested in the error message
+     *
+     * @param choices      The allowed choices
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<String> choice(String[] choices, String errorMessage) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConverterOutput<String>[] outputs = new ConverterOutput[choices.length];
+        for (int i = 0; i < choices.length; i++)
+            outputs[i] = ConverterOutput.of(choices[i]);
+        return choiceConverter(new ChoiceTable<>(choices, outputs), errorMessage, SlashOptionType.STRING);
+    }
+
+    /**
+     * A converter for the constants of an enum (case insensitive)
+     *
+     * @param type The class of the enum
+     * @param <E>  The type of the enum
+     * @return The converter
+     */
+    public static <E extends Enum<E>> Converter<E> choice(Class<E> type) {
+        E[] constants = type.getEnumConstants();
+        String[] names = new String[constants.length];
+        for (int i = 0; i < constants.length; i++)
+            names[i] = constants[i].name().toLowerCase(Locale.ROOT);
+        return choice(type, "Invalid value provided! Must be one of: " + String.join(", ", names));
+    }
+
+    /**
+     * A converter for the constants of an enum (case insensitive)
+     *
+     * @param type         The class of the enum
+     * @param errorMessage The custom error message (can be null)
+     * @param <E>          The type of the enum
+     * @return The converter
+     */
+    public static <E extends Enum<E>> Converter<E> choice(Class<E> type, String errorMessage) {
+        E[] constants = type.getEnumConstants();
+        String[] names = new String[constants.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConverterOutput<E>[] outputs = new ConverterOutput[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = constants[i].name();
+            outputs[i] = ConverterOutput.of(constants[i]);
+        }
+        return choiceConverter(new ChoiceTable<>(names, outputs), errorMessage, SlashOptionType.STRING);
+    }
+
+    /**
+     * A converter for the choices of a lookup table
+     *
+     * @param table        The lookup table
+     * @param errorMessage The custom error message (can be null)
+     * @param type         The type of the converter as a slash command option - the choices are only listed for
+     *                     {@link SlashOptionType#STRING} options
+     * @param <T>          The type of the converted value
+     * @return The converter
+     */
+    private static <T> Converter<T> choiceConverter(ChoiceTable<ConverterOutput<T>> table, String errorMessage,
+                                                    SlashOptionType type) {
+        ConverterOutput<T> invalid = ConverterOutput.invalid(errorMessage);
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<T> convert(String value) {
+                ConverterOutput<T> output = table.get(value);
+                return output != null ? output : invalid(value);
+            }
+
+            @Override
+            public ValidatorOutput isValid(String value) {
+                return table.get(value) != null ? ValidatorOutput.VALID : invalid(value);
+            }
+
+            // Suggest the closest choice if there is one (only when there is an error message to add it to)
+            private ConverterOutput<T> invalid(String value) {
+                String suggestion = errorMessage == null ? null : table.suggest(value);
+                return suggestion == null ? invalid :
+                        ConverterOutput.invalid(errorMessage + "\nDid you mean `" + suggestion + "`?");
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return type;
+            }
+
+            @Override
+            public String[] getSlashChoices() {
+                return type == SlashOptionType.STRING ? table.getChoices() : null;
+            }
+        };
+    }
+
+    /**
+     * A converter for Discord IDs (snowflakes)
+     *
+     * @return The converter
+     */
+    public static Converter<Long> snowflake() {
+        return snowflake("Invalid ID provided!");
+    }
+
+    /**
+     * A converter for Discord IDs (snowflakes)
+     *
+     * @param errorMessage The custom error message (can be null)
+     * @return The converter
+     */
+    public static Converter<Long> snowflake(String errorMessage) {
+        return mention("", "", errorMessage, SlashOptionType.STRING);
+    }
+
+    /**
+     * A converter for user mentions ({@code <@id>} or {@code <@!id>}) or user IDs, converted to the ID
+     *
+     * @return The converter
+     */
+    public static Converter<Long> userMention() {
+        return mention("<@", "<@!", "Invalid user provided!", SlashOptionType.USER);
+    }
+
+    /**
+     * A converter for channel mentions ({@code <#id>}) or channel IDs, converted to the ID
+     *
+     * @return The converter
+     */
+    public static Converter<Long> channelMention() {
+        return mention("<#", "<#", "Invalid channel provided!", SlashOptionType.CHANNEL);
+    }
+
+    /**
+     * A converter for role mentions ({@code <@&id>}) or role IDs, converted to the ID
+     *
+     * @return The converter
+     */
+    public static Converter<Long> roleMention() {
+        return mention("<@&", "<@&", "Invalid role provided!", SlashOptionType.ROLE);
+    }
+
+    /**
+     * A converter for mentions or plain IDs, converted to the ID
+     *
+     * @param prefix       The prefix of the mention (for example {@code <@}), or an empty string for plain IDs
+     * @param altPrefix    Another accepted prefix (for example {@code <@!})
+     * @param errorMessage The custom error message (can be null)
+     * @param type         The type of the converter as a slash command option
+     * @return The converter
+     */
+    private static Converter<Long> mention(String prefix, String altPrefix, String errorMessage,
+                                           SlashOptionType type) {
+        ConverterOutput<Long> invalid = ConverterOutput.invalid(errorMessage);
+        return new Converter<>() {
+            @Override
+            public ConverterOutput<Long> convert(String value) {
+                long id = parseMention(value, prefix, altPrefix);
+                return id >= 0 ? ConverterOutput.ofLong(id) : invalid;
+            }
+
+            @Override
+            public ValidatorOutput isValid(String value) {
+                return parseMention(value, prefix, altPrefix) >= 0 ? ValidatorOutput.VALID : invalid;
+            }
+
+            @Override
+            public SlashOptionType getSlashOptionType() {
+                return type;
+            }
+        };
+    }
+
+    /**
+     * A validator for the length of a value
+     *
+     * @param min The minimum length
+     * @param max The maximum length
+     * @return The validator
+     */
+    public static Validator length(int min, int max) {
+        return length(min, max, "Must be between " + min + " and " + max + " characters long!");
+    }
+
+    /**
+     * A validator for the length of a value
+     *
+     * @param min          The minimum length
+     * @param max          The maximum length
+     * @param errorMessage The custom error message (can be null)
+     * @return The validator
+     */
+    public static Validator length(int min, int max, String errorMessage) {
+        checkRange(min >= 0 && min <= max);
+        ValidatorOutput invalid = new ValidatorOutput(false, errorMessage);
+        return value -> value.length() >= min && value.length() <= max ? ValidatorOutput.VALID : invalid;
+    }
+
+    /**
+     * A validator which checks if the whole value matches a regex (compiled once)
+     *
+     * @param regex        The regex
+     * @param errorMessage The custom error message (can be null)
+     * @return The validator
+     */
+    public static Validator matches(String regex, String errorMessage) {
+        return matches(Pattern.compile(regex), errorMessage);
+    }
+
+    /**
+     * A validator which checks if the whole value matches a regex
+     *
+     * @param pattern      The compiled regex
+     * @param errorMessage The custom error message (can be null)
+     * @return The validator
+     */
+    public static Validator matches(Pattern pattern, String errorMessage) {
+        ValidatorOutput invalid = new ValidatorOutput(false, errorMessage);
+        return value -> pattern.matcher(value).matches() ? ValidatorOutput.VALID : invalid;
+    }
+
+    private static void checkRange(boolean valid) {
+        if (!valid)
+            throw new IllegalArgumentException("Invalid range!");
+    }
+
+    /**
+     * Parse an int
+     *
+     * @param value The string to parse
+     * @param from  The start of the int (inclusive)
+     * @param to    The end of the int (exclusive)
+     * @return The int, or {@link #NOT_AN_INT} if the region isn't an int
+     */
+    static long parseInt(String value, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+            negative = value.charAt(i++) == '-';
+        if (i == to)
+            return NOT_AN_INT;
+
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return NOT_AN_INT;
+            result = result * 10 + digit;
+            if (result > Integer.MAX_VALUE + 1L)
+                return NOT_AN_INT;
+        }
+
+        result = negative ? -result : result;
+        return result > Integer.MAX_VALUE ? NOT_AN_INT : result;
+    }
+
+    /**
+     * Check if a region is a long
+     *
+     * @param value The string to check
+     * @param from  The start of the long (inclusive)
+     * @param to    The end of the long (exclusive)
+     * @return Whether the region is a long (an optionally signed number which doesn't overflow)
+     */
+    static boolean isLong(String value, int from, int to) {
+        int i = from;
+        long limit = -Long.MAX_VALUE;
+        if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            if (value.charAt(i++) == '-')
+                limit = Long.MIN_VALUE;
+        }
+        if (i == to)
+            return false;
+
+        // Accumulate negatively (like Long.parseLong) so Long.MIN_VALUE can be represented
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10)
+                return false;
+            result *= 10;
+            if (result < limit + digit)
+                return false;
+            result -= digit;
+        }
+        return true;
+    }
+
+    /**
+     * Parse a long which has already been checked with {@link #isLong(String, int, int)}
+     *
+     * @param value The string to parse
+     * @param from  The start of the long (inclusive)
+     * @param to    The end of the long (exclusive)
+     * @return The long
+     */
+    static long parseLong(String value, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (value.charAt(i) == '-' || value.charAt(i) == '+')
+            negative = value.charAt(i++) == '-';
+
+        long result = 0;
+        for (; i < to; i++)
+            result = result * 10 - (value.charAt(i) - '0');
+        return negative ? result : -result;
+    }
+
+    /**
+     * Check if a region is a decimal number: an optional sign, digits with an optional decimal point (at least one
+     * digit in total) and an optional exponent. Unlike {@link Double#parseDouble(String)}, {@code NaN},
+     * {@code Infinity}, hexadecimal numbers, type suffixes and surrounding whitespace are not accepted.
+     *
+     * @param value The string to check
+     * @param from  The start of the number (inclusive)
+     * @param to    The end of the number (exclusive)
+     * @return Whether the region is a decimal number
+     */
+    static boolean isDecimal(String value, int from, int to) {
+        int i = from;
+        if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+
+        int digits = 0;
+        while (i < to && isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < to && value.charAt(i) == '.') {
+            i++;
+            while (i < to && isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0)
+            return false;
+
+        if (i < to && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+            int exponentDigits = 0;
+            while (i < to && isDigit(value.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0)
+                return false;
+        }
+        return i == to;
+    }
+
+    /**
+     * Parse a snowflake (17 to 20 digits which fit in a long)
+     *
+     * @param value The string to parse
+     * @param from  The start of the snowflake (inclusive)
+     * @param to    The end of the snowflake (exclusive)
+     * @return The snowflake, or -1 if the region isn't one
+     */
+    static long parseSnowflake(String value, int from, int to) {
+        if (to - from < 17 || to - from > 20)
+            return -1;
+        for (int i = from; i < to; i++)
+            if (!isDigit(value.charAt(i)))
+                return -1;
+        return isLong(value, from, to) ? parseLong(value, from, to) : -1;
+    }
+
+    /**
+     * Parse a mention or a plain ID
+     *
+     * @param value     The string to parse
+     * @param prefix    The prefix of the mention, or an empty string for plain IDs
+     * @param altPrefix Another accepted prefix
+     * @return The ID, or -1 if the value isn't a mention or ID
+     */
+    static long parseMention(String value, String prefix, String altPrefix) {
+        if (prefix.length() > 0 && value.endsWith(">")) {
+            if (value.startsWith(altPrefix))
+                return parseSnowflake(value, altPrefix.length(), value.length() - 1);
+            if (value.startsWith(prefix))
+                return parseSnowflake(value, prefix.length(), value.length() - 1);
+        }
+        return parseSnowflake(value, 0, value.length());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
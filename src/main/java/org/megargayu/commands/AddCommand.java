@@ -0,0 +1,22 @@
+package org.megargayu.commands;
+
+import org.megargayu.argextension.Arg;
+import org.megargayu.argextension.ArgumentCommand;
+import org.megargayu.argextension.Execute;
+import com.jagrosh.jdautilities.command.CommandEvent;
+
+public class AddCommand extends ArgumentCommand {
+    public AddCommand() {
+        this.name = "add";
+        this.help = "adds two or three numbers";
+        this.guildOnly = false;
+        bind(new AddCommand_Binder());
+    }
+
+    @Execute
+    void add(CommandEvent event, @Arg(value = "a", description = "the first number") int a,
+             @Arg(value = "b", description = "the second number") int b,
+             @Arg(value = "c", description = "the third number", optional = true) Integer c) {
+        event.reply(String.valueOf(c == null ? a + b : a + b + c));
+    }
+}
@@ -2,11 +2,10 @@ package org.megargayu.commands;
 
 import org.megargayu.argextension.Argument;
 import org.megargayu.argextension.ArgumentCommand;
-import org.megargayu.argextension.ValidatorOutput;
+import org.megargayu.argextension.ArgumentValues;
+import org.megargayu.argextension.Converters;
 import com.jagrosh.jdautilities.command.CommandEvent;
 
-import java.util.List;
-
 public class TestCommand extends ArgumentCommand {
     public TestCommand() {
         this.name = "test";
@@ -14,20 +13,13 @@ public class TestCommand extends ArgumentCommand {
         this.guildOnly = false;
         this.aliases = new String[]{"t"};
         this.requiredArguments = new Argument[]{
-                new Argument("number", "the test number", "number", value -> {
-                    try {
-                        Integer.parseInt(value);
-                        return new ValidatorOutput(true);
-                    } catch (NumberFormatException e) {
-                        return new ValidatorOutput(false, "Invalid integer provided!");
-                    }
-                })
+                new Argument("number", "the test number", "number", Converters.integer("Invalid integer provided!"))
         };
     }
 
     @Override
-    protected void execute(CommandEvent event, List<String> args) {
-        int number = Integer.parseInt(args.get(0));
+    protected void execute(CommandEvent event, ArgumentValues args) {
+        int number = args.getInt("number");
         event.reply(String.valueOf(number));
     }
 }
@@ -0,0 +1,93 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ArgumentCommandTest {
+    private static class ListCommand extends ArgumentCommand {
+        private ListCommand() {
+            this.name = "list";
+            this.requiredArguments = new Argument[]{new Argument("a", null), new Argument("b", null)};
+        }
+
+        @Override
+        protected void execute(CommandEvent event, List<String> args) {
+            event.reply(String.join(",", args));
+        }
+    }
+
+    private static class BodylessCommand extends ArgumentCommand {
+        private BodylessCommand() {
+            this.name = "bodyless";
+        }
+    }
+
+    private static class ContainerCommand extends ArgumentCommand {
+        private ContainerCommand() {
+            this.name = "config";
+            this.subcommands = new ArgumentCommand[]{new ListCommand()};
+        }
+    }
+
+    private static class InheritedBodyCommand extends ListCommand {
+    }
+
+    private static class JoinedCommand extends ArgumentCommand {
+        private JoinedCommand() {
+            this.name = "say";
+            this.requiredArguments = new Argument[]{new Argument("text", null)};
+            this.addLastArgument = true;
+            this.maxArgumentLength = 7;
+        }
+
+        @Override
+        protected void execute(CommandEvent event, List<String> args) {
+            event.reply(args.get(0));
+        }
+    }
+
+    private static StubCommandEvent run(ArgumentCommand command, String args) {
+        StubCommandEvent event = new StubCommandEvent(StubCommandClient.create("!", command), args);
+        command.execute(event);
+        return event;
+    }
+
+    @Test
+    public void commandWithoutBodyFailsWhenRun() {
+        BodylessCommand command = new BodylessCommand();
+        assertThrows(IllegalStateException.class, () -> run(command, ""));
+    }
+
+    @Test
+    public void commandWithOnlySubcommandsNeedsNoBody() {
+        ContainerCommand command = new ContainerCommand();
+        assertEquals(List.of("x,y"), run(command, "list x y").getReplies());
+        assertEquals(1, run(command, "get").getReplies().size());
+    }
+
+    @Test
+    public void listBodyIsCalled() {
+        assertEquals(List.of("x,y"), run(new ListCommand(), "x y").getReplies());
+    }
+
+    @Test
+    public void inheritedBodyCounts() {
+        assertEquals(List.of("x,y"), run(new InheritedBodyCommand(), "x y").getReplies());
+    }
+
+    @Test
+    public void joinedArgumentLengthIsTheJoinedValue() {
+        // The input spans 14 characters, but the argument is `ab "c"` - within the limit
+        assertEquals(List.of("ab \"c\""), run(new JoinedCommand(), "ab   \t \"c\"    ").getReplies());
+
+        List<String> replies = run(new JoinedCommand(), "ab \"c\" d").getReplies();
+        assertEquals(1, replies.size());
+        assertTrue(replies.get(0), replies.get(0).startsWith("Argument `text` is too long!"));
+    }
+}
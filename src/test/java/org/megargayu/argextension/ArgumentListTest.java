@@ -0,0 +1,121 @@
+package org.megargayu.argextension;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks {@link ArgumentList#split(String, int, boolean)} against the regex {@code splitArguments} it replaced
+ */
+public class ArgumentListTest {
+    private static final Pattern REGEX = Pattern.compile("\"([^\"]*)\"|'([^']*)'|[^\\s]+");
+
+    /**
+     * The characters random inputs are made of - every character the splitting rules care about, and a few others
+     */
+    private static final char[] ALPHABET = {'a', 'b', 'c', ' ', ' ', '\t', '\n', '\r', '\u000B', '\f', '"', '"',
+            '\'', '\'', '-', '='};
+
+    /**
+     * The original {@code splitArguments}, with the number of arguments passed in
+     *
+     * @param arguments       The un-parsed argument string
+     * @param addLastArgument Whether everything after the last argument is added onto it
+     * @param argumentCount   The number of required and optional arguments
+     * @return The resulting list of arguments
+     */
+    private static List<String> reference(String arguments, boolean addLastArgument, int argumentCount) {
+        List<String> split = new ArrayList<>();
+        Matcher regexMatcher = REGEX.matcher(arguments);
+        while (regexMatcher.find()) {
+            if (addLastArgument && split.size() >= argumentCount) {
+                split.set(split.size() - 1, split.get(split.size() - 1) + " " + regexMatcher.group());
+                continue;
+            }
+
+            if (regexMatcher.group(1) != null) split.add(regexMatcher.group(1)); // Double quotes
+            else if (regexMatcher.group(2) != null) split.add(regexMatcher.group(2)); // Single quotes
+            else split.add(regexMatcher.group()); // No quotes
+        }
+
+        return split;
+    }
+
+    private static void assertSameSplit(String input) {
+        assertEquals("`" + input + "`", reference(input, false, 0),
+                new ArrayList<>(ArgumentList.split(input, Integer.MAX_VALUE, false)));
+        // The original threw when addLastArgument was set without any arguments, so that case isn't compared
+        for (int count = 1; count <= 4; count++) {
+            assertEquals("`" + input + "` joined after " + count, reference(input, true, count),
+                    new ArrayList<>(ArgumentList.split(input, count, true)));
+        }
+    }
+
+    @Test
+    public void emptyInput() {
+        assertSameSplit("");
+    }
+
+    @Test
+    public void whitespaceOnlyInput() {
+        assertSameSplit(" ");
+        assertSameSplit("   \t \n ");
+        assertSameSplit("\r\n\u000B\f");
+    }
+
+    @Test
+    public void unbalancedQuotes() {
+        assertSameSplit("\"a b");
+        assertSameSplit("a \"b c");
+        assertSameSplit("'a b");
+        assertSameSplit("\"a' b");
+        assertSameSplit("a\" b\"");
+        assertSameSplit("\"");
+        assertSameSplit("\" '");
+    }
+
+    @Test
+    public void adjacentQuotes() {
+        assertSameSplit("\"a\"\"b\"");
+        assertSameSplit("\"a\"'b'");
+        assertSameSplit("\"\"");
+        assertSameSplit("\"\" ''");
+        assertSameSplit("\"a b\"c d");
+        assertSameSplit("a\"b c\"");
+    }
+
+    @Test
+    public void tabsAndNewlines() {
+        assertSameSplit("a\tb\nc");
+        assertSameSplit("\"a\tb\"\n'c\nd'");
+        assertSameSplit("a\r\nb\r\n");
+        assertSameSplit("\ta\u000Bb\fc\t");
+    }
+
+    @Test
+    public void addLastJoin() {
+        assertSameSplit("a b c d e");
+        assertSameSplit("a   b \"c  d\" 'e'");
+        assertSameSplit("\"a b\" c\t\td\n");
+        assertSameSplit("a \"b");
+    }
+
+    @Test
+    public void randomInputs() {
+        Random random = new Random(20210117);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            input.setLength(0);
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++)
+                input.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            assertSameSplit(input.toString());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ArgumentSchemaTest {
+    /**
+     * A converter which tags values with whether it got an event, and fails without one
+     */
+    private static final Converter<String> EVENT_TAG = new Converter<>() {
+        @Override
+        public ConverterOutput<String> convert(String value) {
+            throw new IllegalStateException("Converted without an event!");
+        }
+
+        @Override
+        public ConverterOutput<String> convert(CommandEvent event, String value) {
+            if (event == null)
+                throw new IllegalStateException("Converted without an event!");
+            return ConverterOutput.of("event:" + value);
+        }
+
+        @Override
+        public boolean isEventDependent() {
+            return true;
+        }
+    };
+
+    private static class TagCommand extends ArgumentCommand {
+        private TagCommand() {
+            this.name = "tag";
+            this.options = new Argument[]{Argument.option("target", null, "user", EVENT_TAG, "me"),
+                    Argument.option("count", null, "number", Validators.intRange(1, 9), "3")};
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+            event.reply(args.<String>get("target") + " " + args.getInt("count"));
+        }
+    }
+
+    private static List<String> run(ArgumentCommand command, String args) {
+        StubCommandEvent event = new StubCommandEvent(StubCommandClient.create("!", command), args);
+        command.execute(event);
+        return event.getReplies();
+    }
+
+    @Test
+    public void eventDependentDefaultsAreConvertedPerInvocation() {
+        TagCommand command = new TagCommand();
+        // Compiling the schema doesn't convert the default without an event
+        assertNull(command.getSchema().getOptionDefault(0));
+        assertEquals(List.of("event:me 3"), run(command, ""));
+        assertEquals(List.of("event:you 4"), run(command, "--target=you --count=4"));
+    }
+
+    @Test
+    public void memberDefaultDoesNotNeedAnEvent() {
+        new ArgumentSchema("kick", null, null,
+                new Argument[]{Argument.option("member", null, "member", Converters.member(), "<@1>")}, false);
+    }
+
+    @Test
+    public void optionIndexOfRegion() {
+        ArgumentSchema schema = new TagCommand().getSchema();
+        String input = "a --count=2 --target --counts";
+        assertEquals(1, schema.optionIndexOf(input, 4, 9));
+        assertEquals(0, schema.optionIndexOf(input, 14, 20));
+        assertEquals(-1, schema.optionIndexOf(input, 23, 29));
+        assertEquals(-1, schema.optionIndexOf(input, 4, 8));
+    }
+}
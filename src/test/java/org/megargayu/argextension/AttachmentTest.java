@@ -0,0 +1,134 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AttachmentTest {
+    /**
+     * Sums the scores in an attached file, one per line
+     */
+    private static class ScoresCommand extends ArgumentCommand {
+        private final AttachmentSource source;
+        private boolean finished;
+
+        private ScoresCommand(AttachmentSource source) {
+            this.name = "scores";
+            this.source = source;
+            this.requiredArguments = new Argument[]{
+                    Argument.attachment("scores", "One score per line", 16, Validators.intRange(0, 100))};
+        }
+
+        @Override
+        protected List<AttachmentSource> getAttachments(CommandEvent event) {
+            return List.of(source);
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+            int sum = 0;
+            try (AttachmentLines lines = args.getAttachment("scores").lines()) {
+                while (lines.hasNext())
+                    sum += Integer.parseInt(lines.next());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = true;
+            event.reply(String.valueOf(sum));
+        }
+    }
+
+    /**
+     * A local file whose size is reported wrong, like a stream which is longer than announced
+     */
+    private static AttachmentSource underreported(Path file) {
+        return new AttachmentSource() {
+            @Override
+            public String getFileName() {
+                return file.getFileName().toString();
+            }
+
+            @Override
+            public long getSize() {
+                return 1;
+            }
+
+            @Override
+            public InputStream openStream() throws IOException {
+                return Files.newInputStream(file);
+            }
+        };
+    }
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("attachments");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("scores.txt"), content);
+    }
+
+    private static StubCommandEvent run(ScoresCommand command) {
+        StubCommandEvent event = new StubCommandEvent(StubCommandClient.create("!", command), "");
+        command.execute(event);
+        return event;
+    }
+
+    @Test
+    public void fileWithinTheLimitIsRead() throws IOException {
+        ScoresCommand command = new ScoresCommand(AttachmentSource.of(write("10\n20\n30\n")));
+        assertEquals(List.of("60"), run(command).getReplies());
+    }
+
+    @Test
+    public void reportedSizeOverTheLimitIsRejectedBeforeRunning() throws IOException {
+        ScoresCommand command = new ScoresCommand(AttachmentSource.of(write("10\n20\n30\n40\n50\n60\n")));
+        List<String> replies = run(command).getReplies();
+        assertEquals(1, replies.size());
+        assertTrue(replies.get(0), replies.get(0).startsWith("`scores.txt` is too large for argument `scores`!"));
+        assertFalse(command.finished);
+    }
+
+    @Test
+    public void contentOverTheLimitFailsWhileStreaming() throws IOException {
+        ScoresCommand command = new ScoresCommand(underreported(write("10\n20\n30\n40\n50\n60\n")));
+        List<String> replies = run(command).getReplies();
+        assertEquals(1, replies.size());
+        assertTrue(replies.get(0), replies.get(0).startsWith("`scores.txt` is too large! It can be at most 16 bytes."));
+        assertFalse(command.finished);
+    }
+
+    @Test
+    public void invalidLineIsRejected() throws IOException {
+        ScoresCommand command = new ScoresCommand(AttachmentSource.of(write("10\nabc\n30\n")));
+        List<String> replies = run(command).getReplies();
+        assertEquals(1, replies.size());
+        assertTrue(replies.get(0), replies.get(0).startsWith("Line 2 of `scores.txt` is invalid!"));
+        assertFalse(command.finished);
+    }
+}
@@ -0,0 +1,102 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchTest {
+    /**
+     * An async validator whose checks complete only when the test completes them
+     */
+    private static class PendingValidator implements AsyncValidator {
+        private final Map<String, CompletableFuture<ValidatorOutput>> pending = new HashMap<>();
+
+        @Override
+        public synchronized CompletableFuture<? extends ValidatorOutput> isValidAsync(String value) {
+            return pending.computeIfAbsent(value, v -> new CompletableFuture<>());
+        }
+
+        private synchronized int started() {
+            return pending.size();
+        }
+
+        private synchronized void complete(String value, boolean valid) {
+            pending.get(value).complete(new ValidatorOutput(valid, valid ? null : "`" + value + "` isn't known."));
+        }
+    }
+
+    private static class LookupCommand extends ArgumentCommand {
+        private final List<String> ran = new ArrayList<>();
+
+        private LookupCommand(PendingValidator validator) {
+            this.name = "lookup";
+            this.batchMode = true;
+            this.batchChunkSize = 2;
+            this.asyncExecutor = Runnable::run;
+            this.requiredArguments = new Argument[]{new Argument("name", null, "name", validator)};
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+        }
+
+        @Override
+        protected void executeBatch(CommandEvent event, List<ArgumentValues> rows) {
+            for (ArgumentValues row : rows)
+                ran.add(row.getString("name"));
+        }
+    }
+
+    @Test
+    public void asyncRowsDontBlockTheReceivingThread() {
+        PendingValidator validator = new PendingValidator();
+        LookupCommand command = new LookupCommand(validator);
+        StubCommandEvent event = new StubCommandEvent(StubCommandClient.create("!", command), "a\nb\n\nc d\ne");
+
+        // Nothing has completed yet, so this returns without running or replying
+        command.execute(event);
+        assertEquals(List.of(), event.getReplies());
+        // Only a chunk of rows is validated at once
+        assertEquals(2, validator.started());
+
+        validator.complete("b", false);
+        assertEquals(List.of(), event.getReplies());
+        validator.complete("a", true);
+        assertEquals(3, validator.started());
+        assertEquals(List.of(), event.getReplies());
+
+        validator.complete("e", true);
+        assertEquals(List.of("a", "e"), command.ran);
+        List<String> replies = event.getReplies();
+        assertEquals(1, replies.size());
+        String summary = replies.get(0);
+        assertTrue(summary, summary.startsWith("Ran 2 of 4 rows, 2 rejected."));
+        // Line 4 was rejected before line 2 was validated, but its error still comes after line 2's
+        assertTrue(summary, summary.indexOf("**Line 2:**") < summary.indexOf("**Line 4:**"));
+    }
+
+    @Test
+    public void asyncChunksRunBeforeTheBatchIsDone() {
+        PendingValidator validator = new PendingValidator();
+        LookupCommand command = new LookupCommand(validator);
+        StubCommandEvent event = new StubCommandEvent(StubCommandClient.create("!", command), "a\nb\nc");
+        command.execute(event);
+
+        validator.complete("b", true);
+        validator.complete("a", true);
+        assertEquals(List.of("a", "b"), command.ran);
+        assertEquals(List.of(), event.getReplies());
+
+        validator.complete("c", true);
+        assertEquals(List.of("a", "b", "c"), command.ran);
+        assertEquals(List.of("Ran 3 of 3 rows."), event.getReplies());
+    }
+}
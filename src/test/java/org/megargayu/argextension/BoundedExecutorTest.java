@@ -0,0 +1,72 @@
+package org.megargayu.argextension;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class BoundedExecutorTest {
+    /**
+     * Keeps the tasks until the test runs them, or rejects them while it is shut down
+     */
+    private static class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutDown;
+
+        @Override
+        public void execute(Runnable task) {
+            if (shutDown)
+                throw new RejectedExecutionException("Shut down");
+            tasks.add(task);
+        }
+
+        private void runNext() {
+            tasks.remove().run();
+        }
+    }
+
+    @Test
+    public void rejectedTaskIsThrownToItsSubmitterAndDropped() {
+        ManualExecutor inner = new ManualExecutor();
+        BoundedExecutor executor = new BoundedExecutor(inner, 1);
+        List<String> ran = new ArrayList<>();
+
+        inner.shutDown = true;
+        for (int i = 0; i < 100; i++)
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> ran.add("dropped")));
+        assertEquals(0, executor.getQueueDepth());
+        assertEquals(0, executor.getActiveCount());
+
+        inner.shutDown = false;
+        executor.execute(() -> ran.add("accepted"));
+        inner.runNext();
+        assertEquals(List.of("accepted"), ran);
+        assertEquals(0, executor.getRejectedCount());
+    }
+
+    @Test
+    public void queuedTaskRejectedLaterIsCounted() {
+        ManualExecutor inner = new ManualExecutor();
+        BoundedExecutor executor = new BoundedExecutor(inner, 1);
+        List<String> ran = new ArrayList<>();
+
+        executor.execute(() -> ran.add("first"));
+        executor.execute(() -> ran.add("queued"));
+        assertEquals(1, executor.getQueueDepth());
+
+        // The queued task is handed over when the first one completes, on its thread - which mustn't see the rejection
+        inner.shutDown = true;
+        inner.runNext();
+        assertEquals(List.of("first"), ran);
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(0, executor.getQueueDepth());
+        assertEquals(0, executor.getActiveCount());
+    }
+}
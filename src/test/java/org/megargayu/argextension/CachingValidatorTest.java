@@ -0,0 +1,102 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class CachingValidatorTest {
+    private static class SumCommand extends ArgumentCommand {
+        private final List<Integer> sums = new ArrayList<>();
+
+        private SumCommand(Validator validator) {
+            this.name = "sum";
+            this.requiredArguments = new Argument[]{new Argument("a", null, "number", validator),
+                    new Argument("b", null, "number", validator)};
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+            sums.add(args.getInt("a") + args.getInt("b"));
+        }
+    }
+
+    private static void run(ArgumentCommand command, String args) {
+        command.execute(new StubCommandEvent(StubCommandClient.create("!", command), args));
+    }
+
+    @Test
+    public void wrappedConverterStillConverts() {
+        CachingValidator validator = new CachingValidator(Converters.integer(), 16, Duration.ofMinutes(1));
+        SumCommand command = new SumCommand(validator);
+        run(command, "2 3");
+        run(command, "3 3");
+        assertEquals(List.of(5, 6), command.sums);
+        assertEquals(2, validator.getMissCount());
+        assertEquals(2, validator.getHitCount());
+    }
+
+    @Test
+    public void builtInConverterIsCachedConverted() {
+        // The built-in converters return ValidatorOutput.VALID from isValid, so the wrapper has to convert
+        CachingValidator validator = new CachingValidator(Validators.intRange(0, 10), 16, Duration.ofMinutes(1));
+        assertTrue(validator.isValid("4") instanceof ConverterOutput);
+
+        SumCommand command = new SumCommand(validator);
+        run(command, "4 4");
+        assertEquals(List.of(8), command.sums);
+        assertEquals(2, validator.getHitCount());
+    }
+
+    @Test
+    public void eventDependentValidatorsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingValidator(Converters.member(), 16, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void evictsOnlyOnceFull() {
+        CachingValidator validator = new CachingValidator(value -> ValidatorOutput.VALID, 64, Duration.ofMinutes(1));
+        for (int i = 0; i < 64; i++)
+            validator.isValid(String.valueOf(i));
+        assertEquals(64, validator.getSize());
+        assertEquals(0, validator.getEvictionCount());
+
+        validator.isValid("64");
+        assertEquals(64, validator.getSize());
+        assertEquals(1, validator.getEvictionCount());
+        // The value which was just added is never the one evicted
+        validator.isValid("64");
+        assertEquals(1, validator.getHitCount());
+    }
+
+    @Test
+    public void asyncValidatorGetsTheEvent() {
+        // Only valid when it gets the event, like a lookup which needs the guild
+        AsyncValidator lookup = new AsyncValidator() {
+            @Override
+            public CompletableFuture<? extends ValidatorOutput> isValidAsync(String value) {
+                return CompletableFuture.completedFuture(new ValidatorOutput(false));
+            }
+
+            @Override
+            public CompletableFuture<? extends ValidatorOutput> isValidAsync(CommandEvent event, String value) {
+                return CompletableFuture.completedFuture(new ValidatorOutput(event != null));
+            }
+        };
+        CachingAsyncValidator validator = new CachingAsyncValidator(lookup, 16, Duration.ofMinutes(1));
+        CommandEvent event = new StubCommandEvent(StubCommandClient.create("!"), "");
+
+        assertTrue(validator.isValidAsync(event, "x").join().getIsValid());
+        assertTrue(validator.isValid(event, "y").getIsValid());
+        assertTrue(validator.isValidAsync(event, "x").join().getIsValid());
+        assertEquals(1, validator.getHitCount());
+    }
+}
@@ -0,0 +1,23 @@
+package org.megargayu.argextension;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class CommandMetricsRecorderTest {
+    @Test
+    public void onlyValidatorFailuresCountAsInvalid() {
+        CommandMetricsRecorder recorder = new CommandMetricsRecorder();
+        Argument argument = new Argument("amount", null);
+        recorder.recordRejection(RejectionReason.INVALID_ARGUMENT, argument);
+        recorder.recordRejection(RejectionReason.ARGUMENT_TOO_LONG, argument);
+        recorder.recordRejection(RejectionReason.MISSING_REQUIRED, null);
+
+        CommandMetricsRecorder.Snapshot snapshot = recorder.snapshot();
+        assertEquals(Map.of("amount", 1L), snapshot.getInvalidArguments());
+        assertEquals(1L, (long) snapshot.getRejections().get(RejectionReason.ARGUMENT_TOO_LONG));
+        assertEquals(1L, (long) snapshot.getRejections().get(RejectionReason.MISSING_REQUIRED));
+    }
+}
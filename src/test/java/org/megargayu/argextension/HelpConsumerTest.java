@@ -0,0 +1,66 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandClient;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class HelpConsumerTest {
+    private static class AddCommand extends ArgumentCommand {
+        private AddCommand() {
+            this.name = "add";
+            this.help = "adds numbers";
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+        }
+    }
+
+    private static class SubtractCommand extends ArgumentCommand {
+        private SubtractCommand() {
+            this.name = "subtract";
+            this.help = "subtracts numbers";
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+        }
+    }
+
+    private static List<String> help(String args) {
+        return help(new HelpConsumer(), StubCommandClient.create("!", new AddCommand()), args);
+    }
+
+    private static List<String> help(HelpConsumer consumer, CommandClient client, String args) {
+        StubCommandEvent event = new StubCommandEvent(client, args);
+        consumer.accept(event);
+        return event.getReplies();
+    }
+
+    @Test
+    public void unknownCommandSuggestsCloseMatch() {
+        assertEquals(List.of("Command 'adds' not found! Did you mean `add`?"), help("adds"));
+        assertEquals(List.of("Command 'subtract' not found!"), help("subtract"));
+    }
+
+    @Test
+    public void multipleWordsAreInvalidUsageEvenWithCloseMatch() {
+        assertEquals(List.of("Invalid usage of 'help'!"), help("add x"));
+        assertEquals(List.of("Invalid usage of 'help'!"), help("2 adds"));
+    }
+
+    @Test
+    public void addedCommandIsFound() {
+        HelpConsumer consumer = new HelpConsumer();
+        CommandClient client = StubCommandClient.create("!", new AddCommand());
+        assertEquals(List.of("Command 'subtracts' not found!"), help(consumer, client, "subtracts"));
+
+        client.addCommand(new SubtractCommand());
+        assertEquals(List.of("Command 'subtracts' not found! Did you mean `subtract`?"),
+                help(consumer, client, "subtracts"));
+    }
+}
@@ -0,0 +1,67 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReloadableCommandRegistryTest {
+    private static class NamedCommand extends Command {
+        private NamedCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        protected void execute(CommandEvent event) {
+        }
+    }
+
+    @Test
+    public void replacedCommandIsNeverMissing() throws InterruptedException {
+        ReloadableCommandRegistry registry = new ReloadableCommandRegistry(
+                new CommandRegistry("!", "help", Color.GREEN, new NamedCommand("add"), new NamedCommand("ping")));
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger missing = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get())
+                if (registry.get().getCommand("add") == null)
+                    missing.incrementAndGet();
+        });
+        reader.start();
+
+        Command last = null;
+        for (int i = 0; i < 200; i++)
+            registry.replace(last = new NamedCommand("add"));
+        registry.rebuild().join();
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, missing.get());
+        assertSame(last, registry.get().getCommand("ADD"));
+        assertEquals(2, registry.get().getCommands().length);
+    }
+
+    @Test
+    public void removedCommandIsGoneOncePublished() {
+        ReloadableCommandRegistry registry = new ReloadableCommandRegistry(
+                new CommandRegistry("!", "help", Color.GREEN, new NamedCommand("add")));
+        assertNull(registry.remove("add").join().getCommand("add"));
+        assertNull(registry.get().getCommand("add"));
+    }
+
+    @Test
+    public void messagesAreSplitLikeTheClient() {
+        assertArrayEquals(new String[]{"add", "1  2"}, CommandDispatcher.parse("!", "!add 1  2"));
+        assertArrayEquals(new String[]{"Add", "1"}, CommandDispatcher.parse("!", "! Add\t1 "));
+        assertArrayEquals(new String[]{"ping", ""}, CommandDispatcher.parse("bot.", "BOT.ping"));
+        assertNull(CommandDispatcher.parse("!", "add 1 2"));
+    }
+}
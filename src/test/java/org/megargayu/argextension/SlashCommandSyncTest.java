@@ -0,0 +1,106 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SlashCommandSyncTest {
+    private static class NamedCommand extends ArgumentCommand {
+        private NamedCommand(String name, String help) {
+            this.name = name;
+            this.help = help;
+            this.requiredArguments = new Argument[]{new Argument("value", "The value")};
+        }
+
+        @Override
+        protected void execute(CommandEvent event, ArgumentValues args) {
+        }
+    }
+
+    private Path directory;
+    private Path manifest;
+
+    @Before
+    public void createManifestDirectory() throws IOException {
+        directory = Files.createTempDirectory("slash-sync");
+        manifest = directory.resolve("slash-commands.properties");
+    }
+
+    @After
+    public void deleteManifestDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    private Set<String> manifestNames() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(manifest)) {
+            properties.load(reader);
+        }
+        return properties.stringPropertyNames();
+    }
+
+    @Test
+    public void onlyChangesAreSynced() throws IOException {
+        LocalSlashCommandRegistrar registrar = new LocalSlashCommandRegistrar();
+        SlashCommandSync sync = new SlashCommandSync(registrar, manifest);
+
+        SlashCommandSync.Result first = sync.sync(List.of(new NamedCommand("add", "Adds"),
+                new NamedCommand("echo", "Echoes"))).join();
+        assertEquals(List.of("add", "echo"), first.getUploaded());
+        assertEquals(Set.of("add", "echo"), registrar.getCommands().keySet());
+        assertEquals(Set.of("add", "echo"), manifestNames());
+        // The manifest is written next to itself and moved into place
+        assertFalse(Files.exists(directory.resolve("slash-commands.properties.tmp")));
+
+        SlashCommandSync.Result second = sync.sync(List.of(new NamedCommand("add", "Adds"),
+                new NamedCommand("echo", "Echoes"))).join();
+        assertEquals(List.of(), second.getUploaded());
+        assertEquals(List.of(), second.getDeleted());
+        assertEquals(List.of("add", "echo"), second.getUnchanged());
+        assertEquals(2, registrar.getUpsertCount());
+
+        SlashCommandSync.Result third = sync.sync(List.of(new NamedCommand("add", "Adds numbers"))).join();
+        assertEquals(List.of("add"), third.getUploaded());
+        assertEquals(List.of("echo"), third.getDeleted());
+        assertTrue(third.getFailed().isEmpty());
+        assertEquals(Set.of("add"), registrar.getCommands().keySet());
+        assertTrue(registrar.getCommands().get("add").contains("Adds numbers"));
+        assertEquals(Set.of("add"), manifestNames());
+    }
+
+    @Test
+    public void failedDeleteStaysInTheManifest() throws IOException {
+        new SlashCommandSync(new LocalSlashCommandRegistrar(), manifest)
+                .sync(List.of(new NamedCommand("add", "Adds"), new NamedCommand("echo", "Echoes"))).join();
+
+        // This registrar doesn't know `echo`, so deleting it fails
+        LocalSlashCommandRegistrar registrar = new LocalSlashCommandRegistrar();
+        SlashCommandSync.Result result = new SlashCommandSync(registrar, manifest)
+                .sync(List.of(new NamedCommand("add", "Adds"))).join();
+        assertEquals(List.of(), result.getDeleted());
+        assertEquals(Set.of("echo"), result.getFailed().keySet());
+        assertEquals(Set.of("add", "echo"), manifestNames());
+
+        // So it is tried again on the next sync
+        new SlashCommandSync(registrar, manifest).sync(List.of(new NamedCommand("add", "Adds"))).join();
+        assertEquals(2, registrar.getDeleteCount());
+    }
+}
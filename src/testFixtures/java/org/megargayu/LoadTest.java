@@ -0,0 +1,47 @@
+package org.megargayu;
+
+import com.jagrosh.jdautilities.command.CommandClient;
+import org.megargayu.argextension.LoadGenerator;
+import org.megargayu.argextension.StubCommandClient;
+import org.megargayu.commands.TestCommand;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a corpus of messages through the example commands without connecting to Discord.
+ * <p>
+ * Arguments: {@code [corpus file] [threads] [seconds]}. The corpus has one message per line, and defaults to
+ * {@code corpus.txt} on the classpath.
+ */
+public class LoadTest {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> corpus;
+        if (args.length > 0 && !args[0].isEmpty()) {
+            corpus = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        } else {
+            InputStream corpusInputStream = LoadTest.class.getClassLoader().getResourceAsStream("corpus.txt");
+            if (corpusInputStream == null)
+                throw new IOException("corpus.txt not found!");
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(corpusInputStream, StandardCharsets.UTF_8))) {
+                corpus = reader.lines().collect(Collectors.toList());
+            }
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        CommandClient client = StubCommandClient.create("!", new TestCommand());
+        LoadGenerator loadGenerator = new LoadGenerator(client, corpus);
+        System.out.print(loadGenerator.run(threads, Duration.ofSeconds(Math.min(seconds, 5)),
+                Duration.ofSeconds(seconds)));
+    }
+}
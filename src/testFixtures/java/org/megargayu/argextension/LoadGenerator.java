@@ -0,0 +1,189 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a corpus of messages (such as {@code !test 12}) through the {@link ArgumentCommand}s of a client from many
+ * threads at once, and reports the throughput, latency and allocation of each command (see {@link LoadReport}).
+ * <p>
+ * Commands are run with {@link StubCommandEvent}s, straight through
+ * {@link ArgumentCommand#execute(com.jagrosh.jdautilities.command.CommandEvent)} - the checks JDA-Utilities does
+ * before running a command (cooldowns, permissions, and so on) are skipped. Only the calling thread is measured, so
+ * the work of {@link AsyncValidator}s and of commands which run on an executor isn't included.
+ */
+public class LoadGenerator {
+    /**
+     * A message of the corpus which was matched to a command
+     */
+    private static final class Invocation {
+        private final ArgumentCommand command;
+        private final String args;
+
+        private Invocation(ArgumentCommand command, String args) {
+            this.command = command;
+            this.args = args;
+        }
+    }
+
+    /**
+     * The measurements of a command
+     */
+    static final class CommandStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final CommandClient client;
+    private final Invocation[] invocations;
+    private final int skippedLines;
+
+    private volatile boolean running, recording;
+
+    /**
+     * Create a load generator
+     *
+     * @param client The client, whose {@link ArgumentCommand}s the corpus is run with
+     * @param corpus The messages to replay (messages which aren't an {@link ArgumentCommand} of the client are
+     *               skipped)
+     */
+    public LoadGenerator(CommandClient client, List<String> corpus) {
+        Map<String, ArgumentCommand> commands = new HashMap<>();
+        for (Command command : client.getCommands()) {
+            if (!(command instanceof ArgumentCommand))
+                continue;
+            commands.putIfAbsent(command.getName(), (ArgumentCommand) command);
+            for (String alias : command.getAliases())
+                commands.putIfAbsent(alias, (ArgumentCommand) command);
+        }
+
+        // Split messages the same way JDA-Utilities does
+        String prefix = client.getTextualPrefix();
+        List<Invocation> invocations = new ArrayList<>(corpus.size());
+        for (String message : corpus) {
+            if (!message.startsWith(prefix))
+                continue;
+            String[] parts = message.substring(prefix.length()).trim().split("\\s+", 2);
+            ArgumentCommand command = commands.get(parts[0]);
+            if (command != null)
+                invocations.add(new Invocation(command, parts.length > 1 ? parts[1] : ""));
+        }
+        if (invocations.isEmpty())
+            throw new IllegalArgumentException("No message of the corpus is a command of the client!");
+
+        this.client = client;
+        this.invocations = invocations.toArray(new Invocation[0]);
+        this.skippedLines = corpus.size() - invocations.size();
+    }
+
+    /**
+     * Run the corpus
+     *
+     * @param threads  The number of threads to run commands on
+     * @param duration How long to run for
+     * @return The results
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public LoadReport run(int threads, Duration duration) throws InterruptedException {
+        return run(threads, Duration.ZERO, duration);
+    }
+
+    /**
+     * Run the corpus, without measuring the first part of the run (so the JIT can compile the commands first)
+     *
+     * @param threads  The number of threads to run commands on
+     * @param warmup   How long to run for before measuring
+     * @param duration How long to measure for
+     * @return The results
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public synchronized LoadReport run(int threads, Duration warmup, Duration duration) throws InterruptedException {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Thread count must be positive!");
+        if (warmup.isNegative())
+            throw new IllegalArgumentException("Warmup cannot be negative!");
+        if (duration.isNegative() || duration.isZero())
+            throw new IllegalArgumentException("Duration must be positive!");
+
+        Map<ArgumentCommand, CommandStats> stats = new IdentityHashMap<>();
+        for (Invocation invocation : invocations)
+            stats.computeIfAbsent(invocation.command, command -> new CommandStats());
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean =
+                threadBean instanceof com.sun.management.ThreadMXBean &&
+                        ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported() ?
+                        (com.sun.management.ThreadMXBean) threadBean : null;
+
+        running = true;
+        recording = false;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            // Start each thread at a different point of the corpus, so they don't all run the same command at once
+            int offset = (int) ((long) invocations.length * i / threads);
+            workers[i] = new Thread(() -> work(offset, stats, allocationBean), "load-generator-" + i);
+            workers[i].start();
+        }
+
+        long elapsed;
+        try {
+            Thread.sleep(warmup.toMillis());
+            recording = true;
+            long start = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            recording = false;
+            elapsed = System.nanoTime() - start;
+        } finally {
+            running = false;
+            for (Thread worker : workers)
+                worker.join();
+        }
+
+        List<LoadReport.CommandReport> commands = new ArrayList<>(stats.size());
+        for (Map.Entry<ArgumentCommand, CommandStats> entry : stats.entrySet())
+            commands.add(new LoadReport.CommandReport(entry.getKey().getName(), entry.getValue(),
+                    allocationBean != null, elapsed));
+        return new LoadReport(threads, elapsed, skippedLines, commands);
+    }
+
+    private void work(int offset, Map<ArgumentCommand, CommandStats> stats,
+                      com.sun.management.ThreadMXBean allocationBean) {
+        long threadId = Thread.currentThread().getId();
+        int next = offset;
+        while (running) {
+            Invocation invocation = invocations[next];
+            next = next + 1 == invocations.length ? 0 : next + 1;
+
+            StubCommandEvent event = new StubCommandEvent(client, invocation.args);
+            long allocated = allocationBean != null ? allocationBean.getThreadAllocatedBytes(threadId) : 0;
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                invocation.command.execute(event);
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+            long nanos = System.nanoTime() - start;
+            allocated = allocationBean != null ? allocationBean.getThreadAllocatedBytes(threadId) - allocated : 0;
+
+            if (recording) {
+                CommandStats commandStats = stats.get(invocation.command);
+                commandStats.latency.record(nanos);
+                commandStats.allocatedBytes.add(allocated);
+                if (failed)
+                    commandStats.errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.megargayu.argextension;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The results of a {@link LoadGenerator} run
+ */
+public class LoadReport {
+    /**
+     * The results of a single command
+     */
+    public static class CommandReport {
+        private final String name;
+        private final LatencyHistogram.Snapshot latency;
+        private final long allocatedBytes;
+        private final long errors;
+        private final long elapsedNanos;
+
+        CommandReport(String name, LoadGenerator.CommandStats stats, boolean allocationSupported, long elapsedNanos) {
+            this.name = name;
+            this.latency = stats.latency.snapshot();
+            this.allocatedBytes = allocationSupported ? stats.allocatedBytes.sum() : -1;
+            this.errors = stats.errors.sum();
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Get the name of the command
+         *
+         * @return The name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the number of times the command was run
+         *
+         * @return The number of runs
+         */
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        /**
+         * Get the number of times the command threw an exception
+         *
+         * @return The number of errors
+         */
+        public long getErrorCount() {
+            return errors;
+        }
+
+        /**
+         * Get the number of times the command was run per second
+         *
+         * @return The throughput
+         */
+        public double getThroughput() {
+            return latency.getCount() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Get the latency of the command
+         *
+         * @return The latency histogram
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * Get the average number of bytes allocated by a run of the command
+         *
+         * @return The bytes allocated per run, or -1 if the JVM can't measure allocation
+         */
+        public double getAllocatedBytesPerCommand() {
+            if (allocatedBytes < 0)
+                return -1;
+            return latency.getCount() == 0 ? 0 : (double) allocatedBytes / latency.getCount();
+        }
+    }
+
+    private final int threads;
+    private final long elapsedNanos;
+    private final int skippedLines;
+    private final List<CommandReport> commands;
+
+    LoadReport(int threads, long elapsedNanos, int skippedLines, List<CommandReport> commands) {
+        commands.sort(Comparator.comparing(CommandReport::getName));
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.skippedLines = skippedLines;
+        this.commands = Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * Get the number of threads commands were run on
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Get how long commands were measured for
+     *
+     * @return The measured duration in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the number of messages of the corpus which weren't a command and were skipped
+     *
+     * @return The number of skipped messages
+     */
+    public int getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Get the total number of commands that were run
+     *
+     * @return The number of commands
+     */
+    public long getCount() {
+        long count = 0;
+        for (CommandReport command : commands)
+            count += command.getCount();
+        return count;
+    }
+
+    /**
+     * Get the total number of commands that were run per second
+     *
+     * @return The throughput
+     */
+    public double getThroughput() {
+        return getCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Get the results of each command
+     *
+     * @return The results, sorted by command name
+     */
+    public List<CommandReport> getCommands() {
+        return commands;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "%d threads, %.1fs, %d commands (%.0f/s), %d messages skipped%n%n",
+                threads, elapsedNanos / 1e9, getCount(), getThroughput(), skippedLines));
+        report.append(String.format("%-16s %10s %12s %10s %10s %10s %10s %10s %8s%n", "command", "count",
+                "per second", "p50 us", "p99 us", "p99.9 us", "max us", "bytes/op", "errors"));
+        for (CommandReport command : commands) {
+            LatencyHistogram.Snapshot latency = command.getLatency();
+            report.append(String.format("%-16s %10d %12.0f %10.1f %10.1f %10.1f %10.1f %10.0f %8d%n",
+                    command.getName(), command.getCount(), command.getThroughput(),
+                    latency.getPercentileNanos(50) / 1e3, latency.getPercentileNanos(99) / 1e3,
+                    latency.getPercentileNanos(99.9) / 1e3, latency.getMaxNanos() / 1e3,
+                    command.getAllocatedBytesPerCommand(), command.getErrorCount()));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package org.megargayu.argextension;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory stand-in for Discord's command endpoints, for running {@link SlashCommandSync} without a Discord
+ * connection. It keeps the JSON of every registered command, and counts the requests it got.
+ */
+public class LocalSlashCommandRegistrar implements SlashCommandRegistrar {
+    private final Map<String, String> commands = new ConcurrentHashMap<>();
+    private final AtomicInteger upserts = new AtomicInteger();
+    private final AtomicInteger deletes = new AtomicInteger();
+
+    @Override
+    public CompletableFuture<Void> upsert(SlashCommandData command) {
+        upserts.incrementAndGet();
+        commands.put(command.getName(), command.toJson());
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String name) {
+        deletes.incrementAndGet();
+        if (commands.remove(name) == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown command `" + name + "`!"));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Get the registered commands
+     *
+     * @return The JSON of every command, by name
+     */
+    public Map<String, String> getCommands() {
+        return new TreeMap<>(commands);
+    }
+
+    /**
+     * Get the number of upserts so far
+     *
+     * @return The number of upserts
+     */
+    public int getUpsertCount() {
+        return upserts.get();
+    }
+
+    /**
+     * Get the number of deletes so far
+     *
+     * @return The number of deletes
+     */
+    public int getDeleteCount() {
+        return deletes.get();
+    }
+}
@@ -0,0 +1,139 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandClient;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.User;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory stand-ins for a {@link CommandClient}, its users and channels, for running commands without a Discord
+ * connection (see {@link StubCommandEvent})
+ */
+public final class StubCommandClient {
+    private StubCommandClient() {
+    }
+
+    /**
+     * Create a client with the help word {@code help}
+     *
+     * @param prefix   The prefix of the client
+     * @param commands The commands of the client
+     * @return The client
+     */
+    public static CommandClient create(String prefix, Command... commands) {
+        return create(prefix, "help", "1000", Arrays.asList(commands));
+    }
+
+    /**
+     * Create a client. Only the prefix, help word, owner, emojis and commands of the client are supported (commands
+     * can be added and removed); every other method returns null, 0 or false.
+     *
+     * @param prefix   The prefix of the client
+     * @param helpWord The help word of the client
+     * @param ownerId  The ID of the owner of the bot
+     * @param commands The commands of the client
+     * @return The client
+     */
+    public static CommandClient create(String prefix, String helpWord, String ownerId, List<Command> commands) {
+        List<Command> commandList = new ArrayList<>(commands);
+        return (CommandClient) Proxy.newProxyInstance(CommandClient.class.getClassLoader(),
+                new Class<?>[]{CommandClient.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTextualPrefix":
+                        case "getPrefix":
+                            return prefix;
+                        case "getHelpWord":
+                            return helpWord;
+                        case "getOwnerId":
+                            return ownerId;
+                        case "getSuccess":
+                            return "\u2714\uFE0F";
+                        case "getWarning":
+                            return "\u26A0\uFE0F";
+                        case "getError":
+                            return "\u274C\uFE0F";
+                        case "getCommands":
+                            return commandList;
+                        case "addCommand":
+                            if (args.length == 1)
+                                commandList.add((Command) args[0]);
+                            else
+                                commandList.add((int) args[1], (Command) args[0]);
+                            return null;
+                        case "removeCommand":
+                            commandList.removeIf(command -> command.getName().equals(args[0]));
+                            return null;
+                        default:
+                            return defaultValue(method, proxy, args);
+                    }
+                });
+    }
+
+    /**
+     * Create a user
+     *
+     * @param type The user interface ({@link User} or {@link net.dv8tion.jda.api.entities.SelfUser})
+     * @param id   The ID of the user
+     * @param name The name of the user
+     * @param <T>  The type of user
+     * @return The user
+     */
+    public static <T extends User> T user(Class<T> type, String id, String name) {
+        return snowflake(type, id, name);
+    }
+
+    /**
+     * Create a direct message channel
+     *
+     * @param id The ID of the channel
+     * @return The channel
+     */
+    public static PrivateChannel channel(String id) {
+        return snowflake(PrivateChannel.class, id, "direct-messages");
+    }
+
+    private static <T extends ISnowflake> T snowflake(Class<T> type, String id, String name) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "getAsTag":
+                            return name;
+                        case "getId":
+                            return id;
+                        case "getIdLong":
+                            return Long.parseLong(id);
+                        case "getAsMention":
+                            return "<@" + id + ">";
+                        default:
+                            return defaultValue(method, proxy, args);
+                    }
+                }));
+    }
+
+    private static Object defaultValue(Method method, Object proxy, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return method.getDeclaringClass().getSimpleName() + "@" +
+                        Integer.toHexString(System.identityHashCode(proxy));
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package org.megargayu.argextension;
+
+import com.jagrosh.jdautilities.command.CommandClient;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An in-memory {@link CommandEvent} for running commands without a Discord connection. Replies and reactions are
+ * recorded instead of sent, and the event looks like it came from a direct message.
+ */
+public class StubCommandEvent extends CommandEvent {
+    private final User author;
+    private final SelfUser selfUser;
+    private final PrivateChannel channel;
+    private final boolean owner;
+
+    private final List<String> replies = Collections.synchronizedList(new ArrayList<>(1));
+    private final List<MessageEmbed> embeds = Collections.synchronizedList(new ArrayList<>(0));
+    private final List<String> reactions = Collections.synchronizedList(new ArrayList<>(0));
+
+    /**
+     * Create an event from a user who isn't the owner of the bot
+     *
+     * @param client The client the command was run with
+     * @param args   The arguments of the command
+     */
+    public StubCommandEvent(CommandClient client, String args) {
+        this(client, args, false);
+    }
+
+    /**
+     * Create an event
+     *
+     * @param client The client the command was run with
+     * @param args   The arguments of the command
+     * @param owner  Whether the event is from the owner of the bot
+     */
+    public StubCommandEvent(CommandClient client, String args, boolean owner) {
+        super(null, args, client);
+        this.author = StubCommandClient.user(User.class, owner ? client.getOwnerId() : "2", "User");
+        this.selfUser = StubCommandClient.user(SelfUser.class, "1", "Bot");
+        this.channel = StubCommandClient.channel("3");
+        this.owner = owner;
+    }
+
+    @Override
+    public void reply(String message) {
+        replies.add(message);
+    }
+
+    @Override
+    public void reply(MessageEmbed embed) {
+        embeds.add(embed);
+    }
+
+    @Override
+    public void react(String reaction) {
+        reactions.add(reaction);
+    }
+
+    @Override
+    public void reactSuccess() {
+        react(getClient().getSuccess());
+    }
+
+    @Override
+    public void reactWarning() {
+        react(getClient().getWarning());
+    }
+
+    @Override
+    public void reactError() {
+        react(getClient().getError());
+    }
+
+    @Override
+    public User getAuthor() {
+        return author;
+    }
+
+    @Override
+    public SelfUser getSelfUser() {
+        return selfUser;
+    }
+
+    @Override
+    public MessageChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public PrivateChannel getPrivateChannel() {
+        return channel;
+    }
+
+    @Override
+    public boolean isOwner() {
+        return owner;
+    }
+
+    @Override
+    public ChannelType getChannelType() {
+        return ChannelType.PRIVATE;
+    }
+
+    @Override
+    public boolean isFromType(ChannelType channelType) {
+        return channelType == ChannelType.PRIVATE;
+    }
+
+    /**
+     * Get the text replies to this event
+     *
+     * @return The replies, in the order they were sent
+     */
+    public List<String> getReplies() {
+        return replies;
+    }
+
+    /**
+     * Get the embed replies to this event
+     *
+     * @return The embeds, in the order they were sent
+     */
+    public List<MessageEmbed> getEmbeds() {
+        return embeds;
+    }
+
+    /**
+     * Get the reactions added to the message of this event
+     *
+     * @return The reactions, in the order they were added
+     */
+    public List<String> getReactions() {
+        return reactions;
+    }
+
+    /**
+     * Get the number of replies (text and embeds) to this event
+     *
+     * @return The number of replies
+     */
+    public int getReplyCount() {
+        return replies.size() + embeds.size();
+    }
+}